@@ -0,0 +1,34 @@
+package com.evaluacion.nisum.benchmark;
+
+import com.evaluacion.nisum.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens/sec and allocation of {@link JwtUtil#generateToken(String)} against the jjwt builder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtBenchmark {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("Juan Rodríguez");
+    }
+
+    @Benchmark
+    public String generateTokenWithBuilder() {
+        return jwtUtil.generateTokenWithBuilder("Juan Rodríguez", UUID.randomUUID().toString(), new Date(System.currentTimeMillis() + 864_000_000));
+    }
+}
@@ -0,0 +1,41 @@
+package com.evaluacion.nisum.benchmark;
+
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code User.builder()} from a request plus the mapping to {@link UserResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingBenchmark {
+
+    private final UserRequest userRequest = Payloads.userRequest(3);
+
+    private final UUID id = UUID.randomUUID();
+
+    @Benchmark
+    public UserResponse buildUserAndResponse() {
+        User user = User.builder()
+                .id(id)
+                .name(userRequest.getName())
+                .email(userRequest.getEmail())
+                .password(userRequest.getPassword())
+                .token("token")
+                .phones(PhoneDto.toPhones(userRequest.getPhones()))
+                .build();
+        return UserResponse.from(user);
+    }
+}
@@ -0,0 +1,30 @@
+package com.evaluacion.nisum.benchmark;
+
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static UserRequest userRequest(int phoneCount) {
+        List<PhoneDto> phones = new ArrayList<>(phoneCount);
+        for (int i = 0; i < phoneCount; i++) {
+            phones.add(PhoneDto.builder()
+                    .number("123456" + i)
+                    .cityCode(String.valueOf(i + 1))
+                    .countryCode("57")
+                    .build());
+        }
+        return UserRequest.builder()
+                .name("Juan Rodríguez")
+                .email("juan.rodriguez@example.com")
+                .password("Password123")
+                .phones(phones)
+                .build();
+    }
+}
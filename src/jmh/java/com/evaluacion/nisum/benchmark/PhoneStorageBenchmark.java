@@ -0,0 +1,110 @@
+package com.evaluacion.nisum.benchmark;
+
+import com.evaluacion.nisum.NisumApplication;
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of storing and loading users with 0, 1 and 10 phones in the {@code user_phone} collection
+ * table. At the end of each iteration it prints the JDBC statements issued per insert and per
+ * load, taken from Hibernate's statistics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhoneStorageBenchmark {
+
+    @Param({"0", "1", "10"})
+    private int phones;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private UUID storedId;
+
+    private long insertStatements;
+    private long inserts;
+    private long loadStatements;
+    private long loads;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(NisumApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "HIBERNATE_STATISTICS=true")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        storedId = insertUser().getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n%d phones: %.1f statements per insert, %.1f statements per load%n", phones,
+                (double) insertStatements / Math.max(inserts, 1), (double) loadStatements / Math.max(loads, 1));
+        insertStatements = inserts = loadStatements = loads = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User insert() {
+        long before = statistics.getPrepareStatementCount();
+        User user = insertUser();
+        insertStatements += statistics.getPrepareStatementCount() - before;
+        inserts++;
+        return user;
+    }
+
+    @Benchmark
+    public int load() {
+        long before = statistics.getPrepareStatementCount();
+        Integer count = transactionTemplate.execute(status -> userRepository.findById(storedId)
+                .map(user -> user.getPhones().size())
+                .orElseThrow());
+        loadStatements += statistics.getPrepareStatementCount() - before;
+        loads++;
+        return count;
+    }
+
+    private User insertUser() {
+        User user = User.builder()
+                .name("Juan Rodríguez")
+                .email("phones" + sequence.incrementAndGet() + "@example.com")
+                .password("hash")
+                .token("token")
+                .phones(PhoneDto.toPhones(Payloads.userRequest(phones).getPhones()))
+                .build();
+        return transactionTemplate.execute(status -> userRepository.save(user));
+    }
+}
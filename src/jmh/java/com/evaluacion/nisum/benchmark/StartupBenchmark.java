@@ -0,0 +1,186 @@
+package com.evaluacion.nisum.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the packaged application takes to serve its first successful
+ * {@code POST /registro}, and its resident memory at that point, for the default configuration,
+ * the {@code fast} profile, and the {@code fast} profile on top of the AppCDS archive.
+ * <p>
+ * Not a JMH benchmark: every run starts a fresh JVM from the extracted boot jar, so the numbers
+ * include class loading and JIT warm-up as a real deployment sees them. Run with
+ * {@code ./gradlew startupBenchmark} ({@code -Paot} adds Spring AOT to the fast variants,
+ * {@code -Pstartup.runs=10} changes the runs per variant). Results are printed and written to
+ * {@code build/reports/startup}.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String BODY = """
+            {"name":"Juan Rodríguez","email":"arranque%d@example.com","password":"Password123",\
+            "phones":[{"number":"1234567","citycode":"1","contrycode":"57"}]}""";
+
+    private final Path directory = Path.of(System.getProperty("startup.directory", "build/cds/application"));
+    private final String jar = System.getProperty("startup.jar", "nisum.jar");
+    private final boolean aot = Boolean.getBoolean("startup.aot");
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final Path report = Path.of(System.getProperty("startup.report", "build/reports/startup/startup.txt"));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private int requestSequence;
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark().run();
+    }
+
+    private void run() throws Exception {
+        List<String> fast = new ArrayList<>(List.of("-Dspring.profiles.active=fast"));
+        if (aot) {
+            fast.add("-Dspring.aot.enabled=true");
+        }
+        List<String> fastCds = new ArrayList<>(fast);
+        fastCds.add("-XX:SharedArchiveFile=application.jsa");
+
+        List<Variant> variants = List.of(
+                new Variant("default", List.of()),
+                new Variant(aot ? "fast+aot" : "fast", fast),
+                new Variant(aot ? "fast+aot+cds" : "fast+cds", fastCds));
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-14s %12s %12s %12s %12s", "variante", "mediana ms", "mínimo ms", "RSS MiB", "corridas"));
+        for (Variant variant : variants) {
+            long[] millis = new long[runs];
+            long[] rssKib = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                Sample sample = measure(variant);
+                millis[i] = sample.millis();
+                rssKib[i] = sample.rssKib();
+                System.out.printf("%s #%d: %d ms, %d MiB%n", variant.name(), i + 1, sample.millis(), sample.rssKib() / 1024);
+            }
+            lines.add(String.format("%-14s %12d %12d %12d %12d",
+                    variant.name(), median(millis), Arrays.stream(millis).min().orElse(0), median(rssKib) / 1024, runs));
+        }
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report), true, StandardCharsets.UTF_8)) {
+            lines.forEach(out::println);
+        }
+        System.out.println();
+        lines.forEach(System.out::println);
+        System.out.println("Informe: " + report);
+    }
+
+    private Sample measure(Variant variant) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(variant.jvmArgs());
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            awaitFirstRegistration(process, port);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            return new Sample(millis, residentKib(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * Retries {@code POST /registro} until it answers 201; refused connections mean the server is
+     * not listening yet.
+     */
+    private void awaitFirstRegistration(Process process, int port) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/registro");
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("La aplicación terminó con código " + process.exitValue());
+            }
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(10))
+                    .POST(HttpRequest.BodyPublishers.ofString(BODY.formatted(++requestSequence)))
+                    .build();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 201) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Sin respuesta 201 de " + uri + " en " + TIMEOUT);
+    }
+
+    /**
+     * Resident set size from {@code /proc}, or from {@code ps} where there is no {@code /proc}.
+     */
+    private static long residentKib(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (Files.isReadable(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes(), StandardCharsets.US_ASCII).trim();
+        ps.waitFor();
+        return output.isEmpty() ? 0 : Long.parseLong(output);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Variant(String name, List<String> jvmArgs) {
+    }
+
+    private record Sample(long millis, long rssKib) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.evaluacion.nisum.benchmark;
+
+import com.evaluacion.nisum.NisumApplication;
+import com.evaluacion.nisum.model.Phone;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sustained batched inserts into an {@code app_user} table that already holds {@code rows} users,
+ * with random (v4) against time-ordered (v7) ids, on a file-backed H2 database.
+ * <p>
+ * Random ids land anywhere in the primary key index, so once it no longer fits in the page cache
+ * every insert touches a different page and pages split half full; time-ordered ids always append
+ * to the rightmost page. After each iteration the size of the database file and the space used by
+ * the table and its indexes are printed, to compare what each kind of id costs on disk.
+ */
+@State(Scope.Benchmark)
+public class UserIdBenchmark {
+
+    private static final int BATCH = 500;
+
+    @Param({"random", "time-ordered"})
+    private String idGenerator;
+
+    @Param({"3000000"})
+    private int rows;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private UserStore userStore;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("user-id-benchmark");
+        context = new SpringApplicationBuilder(NisumApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:file:" + directory.resolve("users"),
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "registration.id-generator=" + idGenerator,
+                        "registration.email-index.expected-insertions=" + Math.max(rows * 2L, 1_000_000))
+                .run();
+        userStore = context.getBean(UserStore.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int i = 0; i < rows; i += BATCH) {
+            userStore.saveAll(newBatch(Math.min(BATCH, rows - i)));
+        }
+        report("prellenado");
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportSize() {
+        report("iteración");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<User> insertBatch() {
+        return userStore.saveAll(newBatch(BATCH));
+    }
+
+    private void report(String stage) {
+        jdbcTemplate.execute("CHECKPOINT");
+        Long tableBytes = jdbcTemplate.queryForObject("SELECT DISK_SPACE_USED('APP_USER')", Long.class);
+        Long rowCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM app_user", Long.class);
+        long fileBytes;
+        try {
+            fileBytes = Files.size(directory.resolve("users.mv.db"));
+        } catch (IOException e) {
+            fileBytes = -1;
+        }
+        System.out.printf("%n[%s] %s: %d filas, app_user %d MB, archivo %d MB%n", idGenerator, stage, rowCount,
+                tableBytes / (1024 * 1024), fileBytes / (1024 * 1024));
+    }
+
+    private List<User> newBatch(int size) {
+        List<User> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(User.builder()
+                    .name("Juan Rodríguez")
+                    .email("user" + sequence.incrementAndGet() + "@example.com")
+                    .password("pbkdf2$1000$c2FsdA$aGFzaA")
+                    .token("eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJKdWFuIn0.firma")
+                    .phones(new ArrayList<>(List.of(
+                            new Phone("1234567", "1", "57"),
+                            new Phone("7654321", "2", "57"))))
+                    .build());
+        }
+        return batch;
+    }
+}
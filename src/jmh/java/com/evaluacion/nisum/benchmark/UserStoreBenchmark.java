@@ -0,0 +1,123 @@
+package com.evaluacion.nisum.benchmark;
+
+import com.evaluacion.nisum.NisumApplication;
+import com.evaluacion.nisum.model.Phone;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserStore} over JPA and a file-backed H2 database against the embedded journal store,
+ * both holding {@code users} users: inserts per millisecond, and the time to restart the
+ * application until it can serve registrations again (for JPA that includes warming the email
+ * index; for the embedded store, loading the snapshot and replaying the journal).
+ * <p>
+ * The embedded store forces its journal every 500 ms, the same window H2 leaves by default
+ * ({@code WRITE_DELAY}), so both sides offer the same durability.
+ */
+@State(Scope.Benchmark)
+public class UserStoreBenchmark {
+
+    private static final int PREFILL_CHUNK = 500;
+
+    @Param({"jpa", "embedded"})
+    private String store;
+
+    @Param({"1000000"})
+    private int users;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private UserStore userStore;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("user-store-benchmark");
+        start();
+        List<User> chunk = new ArrayList<>(PREFILL_CHUNK);
+        for (int i = 0; i < users; i++) {
+            chunk.add(newUser("prefill" + i + "@example.com"));
+            if (chunk.size() == PREFILL_CHUNK) {
+                userStore.saveAll(chunk);
+                chunk = new ArrayList<>(PREFILL_CHUNK);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            userStore.saveAll(chunk);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public User save() {
+        return userStore.save(newUser("bench" + sequence.incrementAndGet() + "@example.com"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long recover() {
+        context.close();
+        start();
+        return userStore.count();
+    }
+
+    private void start() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(NisumApplication.class)
+                .web(WebApplicationType.NONE);
+        if (store.equals("embedded")) {
+            builder.profiles("embedded")
+                    .properties("logging.level.root=WARN",
+                            "embedded-store.directory=" + directory,
+                            "embedded-store.sync-interval=500ms");
+        } else {
+            builder.properties("logging.level.root=WARN",
+                    "spring.datasource.url=jdbc:h2:file:" + directory.resolve("users"),
+                    "spring.jpa.hibernate.ddl-auto=update",
+                    "registration.email-index.expected-insertions=" + Math.max(users * 2L, 1_000_000));
+        }
+        context = builder.run();
+        userStore = context.getBean(UserStore.class);
+    }
+
+    private static User newUser(String email) {
+        return User.builder()
+                .name("Juan Rodríguez")
+                .email(email)
+                .password("pbkdf2$1000$c2FsdA$aGFzaA")
+                .token("eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJKdWFuIn0.firma")
+                .phones(new ArrayList<>(List.of(
+                        new Phone("1234567", "1", "57"),
+                        new Phone("7654321", "2", "57"))))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.evaluacion.nisum.benchmark;
+
+import com.evaluacion.nisum.config.ValidationProperties;
+import com.evaluacion.nisum.exception.ValidationException;
+import com.evaluacion.nisum.service.DefaultValidationService;
+import com.evaluacion.nisum.util.EmailScanner;
+import com.evaluacion.nisum.util.PasswordScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DefaultValidationService} for valid and invalid inputs, with the regex and scanner modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationBenchmark {
+
+    @Param({"REGEX", "SCANNER"})
+    private ValidationProperties.Mode mode;
+
+    private DefaultValidationService validationService;
+
+    @Setup
+    public void setUp() {
+        ValidationProperties properties = new ValidationProperties();
+        properties.setMode(mode);
+        properties.getEmail().setRegex(EmailScanner.REGEX);
+        properties.getPassword().setRegex(PasswordScanner.REGEX);
+        validationService = new DefaultValidationService(properties);
+    }
+
+    @Benchmark
+    public void validEmail() {
+        validationService.validateEmail("juan.rodriguez@example.com");
+    }
+
+    @Benchmark
+    public boolean invalidEmail() {
+        try {
+            validationService.validateEmail("juan.rodriguez@example");
+            return true;
+        } catch (ValidationException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public void validPassword() {
+        validationService.validatePassword("Password123");
+    }
+
+    @Benchmark
+    public boolean invalidPassword() {
+        try {
+            validationService.validatePassword("password123");
+            return true;
+        } catch (ValidationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the embedded user store ({@code embedded} profile) bound from the
+ * {@code embedded-store.*} keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "embedded-store")
+public class EmbeddedStoreProperties {
+
+    /**
+     * Directory holding the journal segments and the snapshot.
+     */
+    private Path directory = Path.of("data", "embedded");
+
+    /**
+     * Size of each memory-mapped journal segment; a new segment is started when one fills up.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Journal written since the last snapshot that triggers a new one. The threshold grows to the
+     * size of the last snapshot, so compaction costs stay proportional to what was written.
+     */
+    private DataSize snapshotThreshold = DataSize.ofMegabytes(64);
+
+    /**
+     * How often written pages are forced to disk. {@code 0} forces them before every insert
+     * returns; a longer interval risks losing that much of the latest registrations on a crash.
+     */
+    private Duration syncInterval = Duration.ZERO;
+}
@@ -0,0 +1,35 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * {@code Idempotency-Key} settings of {@code POST /registro} bound from the {@code idempotency.*} keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Whether the header is honoured; without it every request registers again.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Estimated memory the stored outcomes may take before the least used ones are evicted.
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(16);
+
+    /**
+     * How long an outcome is replayed for retries with the same key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Longer keys are rejected with 400.
+     */
+    private int maxKeyLength = 255;
+}
@@ -0,0 +1,41 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * File import settings bound from the {@code import.*} keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "import")
+public class ImportProperties {
+
+    /**
+     * NDJSON ({@code .ndjson}, {@code .jsonl}, {@code .json}) or CSV ({@code .csv}) file to import at
+     * startup. Nothing is imported when unset.
+     */
+    private Path file;
+
+    /**
+     * Lines committed per transaction; also the unit of restart.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Threads parsing and validating lines; {@code 0} uses one per available processor.
+     */
+    private int parallelism = 0;
+
+    /**
+     * Where rejected lines are appended. Defaults to {@code <file>.rejects}.
+     */
+    private Path rejectFile;
+
+    /**
+     * Where the position after the last committed chunk is kept. Defaults to
+     * {@code <file>.checkpoint}.
+     */
+    private Path checkpointFile;
+}
@@ -0,0 +1,29 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Login settings bound from the {@code login.*} keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "login")
+public class LoginProperties {
+
+    /**
+     * Verified tokens remembered so repeated logins skip the signature check and the lookup.
+     */
+    private long tokenCacheSize = 10_000;
+
+    /**
+     * How long a verified token is trusted without checking it again.
+     */
+    private Duration tokenCacheTtl = Duration.ofMinutes(5);
+
+    /**
+     * How often pending {@code lastLogin} updates are written to the database.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,19 @@
+package com.evaluacion.nisum.config;
+
+import com.evaluacion.nisum.security.PasswordHasher;
+import com.evaluacion.nisum.security.Pbkdf2PasswordHasher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    /**
+     * Default hasher; declare a {@code @Primary} {@link PasswordHasher} bean to replace it. The cost given
+     * here is only a starting point, {@code PasswordHashingService} sets the effective one.
+     */
+    @Bean
+    public PasswordHasher passwordHasher() {
+        return new Pbkdf2PasswordHasher(210_000);
+    }
+}
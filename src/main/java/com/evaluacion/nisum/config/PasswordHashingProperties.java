@@ -0,0 +1,43 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Password hashing settings bound from the {@code password-hashing.*} keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * Work factor of the hasher (PBKDF2 iterations). {@code 0} calibrates it at startup to
+     * {@link #targetLatency}.
+     */
+    private int cost = 0;
+
+    /**
+     * Time one hash should take on this machine when the cost is calibrated.
+     */
+    private Duration targetLatency = Duration.ofMillis(100);
+
+    /**
+     * Hashing threads; {@code 0} uses one per available processor.
+     */
+    private int threads = 0;
+
+    /**
+     * Hashes waiting for a thread; past it new requests are rejected with 503. Kept below the request
+     * threads ({@code server.tomcat.threads.max}, 200 by default) so the queue fills before every
+     * request thread is waiting on a hash.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Longest a hash may wait for a thread. A registration whose hash has not started by then gives
+     * up with 503 and its hash is dropped from the queue.
+     */
+    private Duration maxQueueWait = Duration.ofMillis(500);
+}
@@ -0,0 +1,146 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Registration settings bound from the {@code registration.*} keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "registration")
+public class RegistrationProperties {
+
+    /**
+     * How duplicate emails are detected on {@code POST /registro}.
+     */
+    private Mode mode = Mode.CHECK_FIRST;
+
+    /**
+     * How new user ids are generated.
+     */
+    private IdGenerator idGenerator = IdGenerator.RANDOM;
+
+    private final Batch batch = new Batch();
+
+    private final EmailIndex emailIndex = new EmailIndex();
+
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    public enum Mode {
+        /**
+         * Look the email up (index, then database) before inserting.
+         */
+        CHECK_FIRST,
+        /**
+         * Insert straight away and let the unique constraint on {@code email} reject duplicates:
+         * one round trip on the happy path.
+         */
+        INSERT_FIRST
+    }
+
+    public enum IdGenerator {
+        /**
+         * Random version 4 UUIDs.
+         */
+        RANDOM,
+        /**
+         * Version 7 UUIDs, ordered by creation time: inserts append to the primary-key index
+         * instead of landing on random pages.
+         */
+        TIME_ORDERED
+    }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * Entries persisted per transaction.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Largest batch accepted by {@code POST /registro/lote}.
+         */
+        private int maxEntries = 5000;
+    }
+
+    @Data
+    public static class EmailIndex {
+
+        private boolean enabled = true;
+
+        /**
+         * Number of emails the index is sized for; past it the false-positive rate grows.
+         */
+        private long expectedInsertions = 1_000_000;
+
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * Emails read per query while warming the index at startup.
+         */
+        private int warmPageSize = 10_000;
+    }
+
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * Answer {@code POST /registro} once the user is queued and persist it asynchronously.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Users waiting to be written; when full, new registrations get a 503.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Most users written per transaction.
+         */
+        private int maxBatchSize = 500;
+
+        /**
+         * How long shutdown waits for the queue to drain.
+         */
+        private Duration drainTimeout = Duration.ofSeconds(30);
+
+        /**
+         * First wait before writing again users whose write failed for a transient reason; it
+         * doubles on every failed attempt.
+         */
+        private Duration retryBackoff = Duration.ofMillis(100);
+
+        /**
+         * Longest wait between write attempts.
+         */
+        private Duration maxRetryBackoff = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+
+        /**
+         * Shed {@code POST /registro} requests over an adaptive limit with 503.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Limit used until enough latency samples have been seen.
+         */
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        /**
+         * Value of the {@code Retry-After} header on shed requests.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
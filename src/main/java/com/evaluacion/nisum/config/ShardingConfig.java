@@ -0,0 +1,44 @@
+package com.evaluacion.nisum.config;
+
+import com.evaluacion.nisum.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@Profile("sharded")
+public class ShardingConfig {
+
+    /**
+     * Replaces the auto-configured data source: one Hikari pool per shard, named {@code shard-<n>} so
+     * the {@code hikaricp.*} meters are tagged per shard, each with the schema created on startup.
+     */
+    @Bean
+    public ShardRoutingDataSource dataSource(ShardingProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("El perfil sharded requiere al menos un fragmento en sharding.shards");
+        }
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql"));
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shards.size());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            schema.execute(dataSource);
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+}
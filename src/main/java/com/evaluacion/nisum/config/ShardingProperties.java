@@ -0,0 +1,53 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded persistence settings ({@code sharded} profile) bound from the {@code sharding.*} keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    /**
+     * One database per shard. A user belongs to the shard picked by a consistent hash of its
+     * normalized email, so shards may only be added at the end of the list (then run the rebalance).
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Threads running the per-shard queries of a fan-out; {@code 0} uses two per shard, or one per
+     * available processor if that is more.
+     */
+    private int fanOutThreads = 0;
+
+    /**
+     * Moves every user stored on a shard other than its own once the application has started;
+     * combine with {@code spring.main.web-application-type=none} to run it as a one-off tool.
+     */
+    private boolean rebalance = false;
+
+    /**
+     * Users read from a shard per page while rebalancing.
+     */
+    private int rebalancePageSize = 500;
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username = "sa";
+
+        private String password = "";
+
+        /**
+         * Connections kept by the shard's pool.
+         */
+        private int maximumPoolSize = 10;
+    }
+}
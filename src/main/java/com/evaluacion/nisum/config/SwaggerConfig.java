@@ -1,17 +1,26 @@
 package com.evaluacion.nisum.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springdoc.core.models.GroupedOpenApi;
 
+/**
+ * Lazy, so the API group is only built when springdoc asks for it, and skipped altogether when
+ * springdoc is disabled, as in the {@code fast} profile.
+ */
+@Lazy
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 public class SwaggerConfig {
 
     @Bean
+    @Lazy
     public GroupedOpenApi userApi() {
         return GroupedOpenApi.builder()
                 .group("User Registration API")
-                .pathsToMatch("/registro")
+                .pathsToMatch("/registro", "/registro/lote", "/login", "/usuarios", "/usuarios/**")
                 .build();
     }
 }
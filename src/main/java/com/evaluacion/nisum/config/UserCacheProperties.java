@@ -0,0 +1,24 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read cache settings bound from the {@code user-cache.*} keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-cache")
+public class UserCacheProperties {
+
+    /**
+     * Entries kept by each cache before the least used ones are evicted.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Upper bound on how long an entry is served; writes through JPA evict it earlier.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
@@ -0,0 +1,18 @@
+package com.evaluacion.nisum.config;
+
+import com.evaluacion.nisum.util.TimeOrderedUuidGenerator;
+import com.evaluacion.nisum.util.UserIdGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserIdConfig {
+
+    @Bean
+    public UserIdGenerator userIdGenerator(RegistrationProperties registrationProperties) {
+        return switch (registrationProperties.getIdGenerator()) {
+            case RANDOM -> UserIdGenerator.random();
+            case TIME_ORDERED -> new TimeOrderedUuidGenerator();
+        };
+    }
+}
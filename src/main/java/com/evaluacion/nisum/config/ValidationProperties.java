@@ -0,0 +1,35 @@
+package com.evaluacion.nisum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Validation rules bound from the {@code validation.*} keys.
+ * <p>
+ * The bean is rebound in place when the environment is refreshed, so consumers must read the
+ * values on use instead of copying them at startup.
+ */
+@Data
+@ConfigurationProperties(prefix = "validation")
+public class ValidationProperties {
+
+    /**
+     * How the rules are evaluated. {@link Mode#SCANNER} only applies to rules whose regex is the
+     * default one; any other regex is evaluated with {@link java.util.regex.Pattern}.
+     */
+    private Mode mode = Mode.REGEX;
+
+    private final Rule email = new Rule();
+
+    private final Rule password = new Rule();
+
+    public enum Mode {
+        REGEX,
+        SCANNER
+    }
+
+    @Data
+    public static class Rule {
+        private String regex;
+    }
+}
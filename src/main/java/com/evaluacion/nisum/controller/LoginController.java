@@ -0,0 +1,38 @@
+package com.evaluacion.nisum.controller;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.service.LoginService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@Profile("!reactive & !embedded")
+@RequiredArgsConstructor
+public class LoginController {
+
+    private static final String BEARER = "Bearer ";
+
+    private final LoginService loginService;
+
+    /**
+     * Logs a user in with the token returned at registration.
+     *
+     * @param authorization {@code Bearer <token>}
+     * @return the user, with the new {@code lastLogin}
+     */
+    @PostMapping("/login")
+    public ResponseEntity<UserDetailResponse> login(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Falta el token en el encabezado Authorization");
+        }
+        return ResponseEntity.ok(loginService.login(authorization.substring(BEARER.length()).trim()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.evaluacion.nisum.controller;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.service.ReactiveUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link UserController}, active with the {@code reactive} profile.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    /**
+     * Registers a new user.
+     *
+     * @param userRequest the user registration request
+     * @return the registered user details
+     */
+    @PostMapping("/registro")
+    public Mono<ResponseEntity<UserResponse>> registerUser(@RequestBody UserRequest userRequest) {
+        return userService.registerUser(userRequest)
+                .map(userResponse -> new ResponseEntity<>(userResponse, HttpStatus.CREATED));
+    }
+}
@@ -1,28 +1,66 @@
 package com.evaluacion.nisum.controller;
+import com.evaluacion.nisum.dto.BulkRegistrationResult;
 import com.evaluacion.nisum.dto.UserRequest;
 import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.service.IdempotencyCache;
 import com.evaluacion.nisum.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class UserController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final UserService userService;
 
+    /**
+     * Absent with {@code idempotency.enabled=false}, and in web slices.
+     */
+    private final ObjectProvider<IdempotencyCache> idempotencyCache;
+
     /**
      * Registers a new user.
      *
-     * @param userRequest the user registration request
-     * @return the registered user details
+     * @param userRequest    the user registration request
+     * @param idempotencyKey optional; a retry with the same key and body gets the first outcome back
+     * @return the registered user details, marked {@code Idempotent-Replayed} when replayed
      */
     @PostMapping("/registro")
-    public ResponseEntity<UserResponse> registerUser(@RequestBody UserRequest userRequest) {
-        UserResponse userResponse = userService.registerUser(userRequest);
-        return new ResponseEntity<>(userResponse, HttpStatus.CREATED);
+    public ResponseEntity<UserResponse> registerUser(@RequestBody UserRequest userRequest,
+                                                     @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        IdempotencyCache cache = idempotencyCache.getIfAvailable();
+        if (idempotencyKey == null || cache == null) {
+            UserResponse userResponse = userService.registerUser(userRequest);
+            return new ResponseEntity<>(userResponse, HttpStatus.CREATED);
+        }
+        IdempotencyCache.Result result = cache.execute(idempotencyKey, userRequest, () -> userService.registerUser(userRequest));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return response.body(result.response());
+    }
+
+    /**
+     * Registers a batch of users.
+     *
+     * @param userRequests the user registration requests
+     * @return the outcome of each entry, in request order
+     */
+    @PostMapping("/registro/lote")
+    public ResponseEntity<List<BulkRegistrationResult>> registerUsers(@RequestBody List<UserRequest> userRequests) {
+        return ResponseEntity.ok(userService.registerUsers(userRequests));
     }
 
 }
@@ -0,0 +1,132 @@
+package com.evaluacion.nisum.controller;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.exception.ValidationException;
+import com.evaluacion.nisum.service.UserExportService;
+import com.evaluacion.nisum.service.UserQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@Profile("!reactive & !embedded")
+@RequiredArgsConstructor
+public class UserQueryController {
+
+    private static final Map<String, String> NOT_FOUND = Map.of("mensaje", "Usuario no encontrado");
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final UserQueryService userQueryService;
+    private final UserExportService userExportService;
+
+    /**
+     * Returns a registered user.
+     *
+     * @param id     the user id
+     * @param phones whether to include the user's phones
+     * @return the user, 304 if it matches {@code If-None-Match}, or 404
+     */
+    @GetMapping("/usuarios/{id}")
+    public ResponseEntity<?> findById(@PathVariable UUID id,
+                                      @RequestParam(defaultValue = "false") boolean phones,
+                                      WebRequest request) {
+        return respond(userQueryService.findById(id, phones), phones, request);
+    }
+
+    /**
+     * Returns the registered user with the given email.
+     *
+     * @param email  the user email
+     * @param phones whether to include the user's phones
+     * @return the user, 304 if it matches {@code If-None-Match}, or 404
+     */
+    @GetMapping(value = "/usuarios", params = "email")
+    public ResponseEntity<?> findByEmail(@RequestParam String email,
+                                         @RequestParam(defaultValue = "false") boolean phones,
+                                         WebRequest request) {
+        return respond(userQueryService.findByEmail(email, phones), phones, request);
+    }
+
+    /**
+     * Streams every registered user, with phones, as NDJSON in {@code (created, id)} order.
+     *
+     * @param afterCreated   {@code created} of the last user already received, to resume
+     * @param afterId        {@code id} of the last user already received, to resume
+     * @param acceptEncoding compressed with gzip when it accepts {@code gzip}
+     * @return one JSON object per line
+     */
+    @GetMapping("/usuarios/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+            @RequestParam(required = false) UUID afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if ((afterCreated == null) != (afterId == null)) {
+            throw new ValidationException("afterCreated y afterId deben indicarse juntos");
+        }
+        UserExportService.Cursor cursor = afterId == null ? null : new UserExportService.Cursor(afterCreated, afterId);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024)) {
+                    userExportService.export(cursor, compressed);
+                }
+            } else {
+                userExportService.export(cursor, output);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static ResponseEntity<?> respond(Optional<UserDetailResponse> user, boolean phones, WebRequest request) {
+        if (user.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(NOT_FOUND);
+        }
+        String eTag = eTag(user.get(), phones);
+        if (request.checkNotModified(eTag)) {
+            // Status 304 and the ETag header are already set on the response.
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(user.get());
+    }
+
+    /**
+     * Version of the representation: changes whenever {@code modified} or {@code lastLogin} does,
+     * and differs with and without phones.
+     */
+    static String eTag(UserDetailResponse user, boolean phones) {
+        return "\"" + Long.toHexString(micros(user.getModified())) + "-" + Long.toHexString(micros(user.getLastLogin()))
+                + (phones ? "-p" : "") + "\"";
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant(ZoneOffset.UTC));
+    }
+}
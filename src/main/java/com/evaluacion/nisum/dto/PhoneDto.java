@@ -0,0 +1,59 @@
+package com.evaluacion.nisum.dto;
+
+import com.evaluacion.nisum.model.Phone;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Phone as it travels on the wire. Kept apart from the {@link Phone} embeddable so binding a request
+ * never builds persistence objects and the JSON names do not leak into the mapping.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PhoneDto {
+
+    private String number;
+
+    @JsonProperty("citycode")
+    private String cityCode;
+
+    @JsonProperty("contrycode")
+    private String countryCode;
+
+    public static PhoneDto from(Phone phone) {
+        return new PhoneDto(phone.getNumber(), phone.getCityCode(), phone.getCountryCode());
+    }
+
+    public Phone toPhone() {
+        return new Phone(number, cityCode, countryCode);
+    }
+
+    /**
+     * @return a new mutable list of phones to persist, or {@code null} for {@code null}
+     */
+    public static List<Phone> toPhones(List<PhoneDto> phones) {
+        if (phones == null) {
+            return null;
+        }
+        List<Phone> result = new ArrayList<>(phones.size());
+        for (PhoneDto phone : phones) {
+            result.add(phone.toPhone());
+        }
+        return result;
+    }
+
+    /**
+     * @return the wire form of the phones, or {@code null} for {@code null}
+     */
+    public static List<PhoneDto> fromPhones(List<Phone> phones) {
+        return phones == null ? null : phones.stream().map(PhoneDto::from).toList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.evaluacion.nisum.dto;
+
+import com.evaluacion.nisum.model.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Registered user as returned by the read API. Neither the password hash nor the token are
+ * exposed; {@code phones} is only present when requested.
+ */
+@Data
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserDetailResponse {
+    private UUID id;
+    private String name;
+    private String email;
+    private LocalDateTime created;
+    private LocalDateTime modified;
+    private LocalDateTime lastLogin;
+    private Boolean isActive;
+    private List<PhoneDto> phones;
+
+    /**
+     * Maps the user without touching its (lazy) phones.
+     */
+    public static UserDetailResponse from(User user) {
+        return UserDetailResponse.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .created(user.getCreated())
+                .modified(user.getModified())
+                .lastLogin(user.getLastLogin())
+                .isActive(user.getIsActive())
+                .build();
+    }
+}
@@ -0,0 +1,261 @@
+package com.evaluacion.nisum.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hand-written Jackson binding for the registration DTOs, registered on Spring's
+ * {@code ObjectMapper} as a {@link JsonComponent}.
+ * <p>
+ * The output is byte-for-byte what reflective binding produces with Spring Boot's defaults: same
+ * property order, {@code null}s written, UUIDs as strings and dates in ISO-8601 without offset.
+ * Field names are pre-encoded, and UUIDs and dates are formatted into a small {@code char[]}
+ * instead of intermediate strings. Reading follows the same rules as reflective binding: scalars
+ * are coerced to text, and unknown properties are handled as configured
+ * ({@code FAIL_ON_UNKNOWN_PROPERTIES} is off in Spring Boot).
+ */
+@JsonComponent
+public class UserJson {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString CREATED = new SerializedString("created");
+    private static final SerializableString MODIFIED = new SerializedString("modified");
+    private static final SerializableString LAST_LOGIN = new SerializedString("lastLogin");
+    private static final SerializableString TOKEN = new SerializedString("token");
+    private static final SerializableString IS_ACTIVE = new SerializedString("isActive");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString CITY_CODE = new SerializedString("citycode");
+    private static final SerializableString COUNTRY_CODE = new SerializedString("contrycode");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final PhoneDtoDeserializer PHONE_DESERIALIZER = new PhoneDtoDeserializer();
+
+    /**
+     * The same serializers and deserializers as a module, for mappers built outside Spring.
+     */
+    public static SimpleModule module() {
+        return new SimpleModule("UserJson")
+                .addSerializer(UserResponse.class, new UserResponseSerializer())
+                .addSerializer(PhoneDto.class, new PhoneDtoSerializer())
+                .addDeserializer(UserRequest.class, new UserRequestDeserializer())
+                .addDeserializer(PhoneDto.class, new PhoneDtoDeserializer());
+    }
+
+    public static class UserResponseSerializer extends JsonSerializer<UserResponse> {
+
+        @Override
+        public void serialize(UserResponse value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(ID);
+            writeUuid(value.getId(), generator);
+            generator.writeFieldName(CREATED);
+            writeDateTime(value.getCreated(), generator, provider);
+            generator.writeFieldName(MODIFIED);
+            writeDateTime(value.getModified(), generator, provider);
+            generator.writeFieldName(LAST_LOGIN);
+            writeDateTime(value.getLastLogin(), generator, provider);
+            generator.writeFieldName(TOKEN);
+            generator.writeString(value.getToken());
+            generator.writeFieldName(IS_ACTIVE);
+            if (value.getIsActive() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeBoolean(value.getIsActive());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    public static class PhoneDtoSerializer extends JsonSerializer<PhoneDto> {
+
+        @Override
+        public void serialize(PhoneDto value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(NUMBER);
+            generator.writeString(value.getNumber());
+            generator.writeFieldName(CITY_CODE);
+            generator.writeString(value.getCityCode());
+            generator.writeFieldName(COUNTRY_CODE);
+            generator.writeString(value.getCountryCode());
+            generator.writeEndObject();
+        }
+    }
+
+    public static class UserRequestDeserializer extends JsonDeserializer<UserRequest> {
+
+        @Override
+        public UserRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = startObject(parser, context, UserRequest.class);
+            UserRequest request = new UserRequest();
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "name" -> request.setName(text(parser, context));
+                    case "email" -> request.setEmail(text(parser, context));
+                    case "password" -> request.setPassword(text(parser, context));
+                    case "phones" -> request.setPhones(phones(parser, context));
+                    default -> context.handleUnknownProperty(parser, this, UserRequest.class, field);
+                }
+            }
+            return request;
+        }
+    }
+
+    public static class PhoneDtoDeserializer extends JsonDeserializer<PhoneDto> {
+
+        @Override
+        public PhoneDto deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = startObject(parser, context, PhoneDto.class);
+            PhoneDto phone = new PhoneDto();
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "number" -> phone.setNumber(text(parser, context));
+                    case "citycode" -> phone.setCityCode(text(parser, context));
+                    case "contrycode" -> phone.setCountryCode(text(parser, context));
+                    default -> context.handleUnknownProperty(parser, this, PhoneDto.class, field);
+                }
+            }
+            return phone;
+        }
+    }
+
+    /**
+     * Positions the parser on the first field (or the end) of an object.
+     */
+    private static JsonToken startObject(JsonParser parser, DeserializationContext context, Class<?> type) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return parser.nextToken();
+        }
+        if (token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT) {
+            return token;
+        }
+        context.handleUnexpectedToken(type, parser);
+        return JsonToken.END_OBJECT;
+    }
+
+    private static String text(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        return (String) context.handleUnexpectedToken(String.class, parser);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<PhoneDto> phones(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            return (List<PhoneDto>) context.handleUnexpectedToken(List.class, parser);
+        }
+        List<PhoneDto> phones = new ArrayList<>();
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            phones.add(token == JsonToken.VALUE_NULL ? null : PHONE_DESERIALIZER.deserialize(parser, context));
+        }
+        return phones;
+    }
+
+    private static void writeUuid(UUID id, JsonGenerator generator) throws IOException {
+        if (id == null) {
+            generator.writeNull();
+            return;
+        }
+        char[] buffer = new char[36];
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        hex(msb >>> 32, 8, buffer, 0);
+        buffer[8] = '-';
+        hex(msb >>> 16, 4, buffer, 9);
+        buffer[13] = '-';
+        hex(msb, 4, buffer, 14);
+        buffer[18] = '-';
+        hex(lsb >>> 48, 4, buffer, 19);
+        buffer[23] = '-';
+        hex(lsb, 12, buffer, 24);
+        generator.writeString(buffer, 0, 36);
+    }
+
+    private static void hex(long value, int digits, char[] buffer, int offset) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * Writes {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}: seconds always present, the fraction
+     * only when non-zero and without trailing zeros.
+     */
+    private static void writeDateTime(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) || value.getYear() < 0 || value.getYear() > 9999) {
+            provider.defaultSerializeValue(value, generator);
+            return;
+        }
+        char[] buffer = new char[29];
+        digits(value.getYear(), 4, buffer, 0);
+        buffer[4] = '-';
+        digits(value.getMonthValue(), 2, buffer, 5);
+        buffer[7] = '-';
+        digits(value.getDayOfMonth(), 2, buffer, 8);
+        buffer[10] = 'T';
+        digits(value.getHour(), 2, buffer, 11);
+        buffer[13] = ':';
+        digits(value.getMinute(), 2, buffer, 14);
+        buffer[16] = ':';
+        digits(value.getSecond(), 2, buffer, 17);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano != 0) {
+            int fractionDigits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                fractionDigits--;
+            }
+            buffer[19] = '.';
+            digits(nano, fractionDigits, buffer, 20);
+            length = 20 + fractionDigits;
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static void digits(int value, int digits, char[] buffer, int offset) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.evaluacion.nisum.dto;
 
-import com.evaluacion.nisum.model.Phone;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,5 +15,5 @@ public class UserRequest {
     private String name;
     private String email;
     private String password;
-    private List<Phone> phones;
+    private List<PhoneDto> phones;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.evaluacion.nisum.dto;
 
+import com.evaluacion.nisum.model.User;
 import lombok.Builder;
 import lombok.Data;
 
@@ -15,4 +16,15 @@ public class UserResponse {
     private LocalDateTime lastLogin;
     private String token;
     private Boolean isActive;
+
+    public static UserResponse from(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .token(user.getToken())
+                .created(user.getCreated())
+                .modified(user.getModified())
+                .lastLogin(user.getLastLogin())
+                .isActive(user.getIsActive())
+                .build();
+    }
 }
\ No newline at end of file
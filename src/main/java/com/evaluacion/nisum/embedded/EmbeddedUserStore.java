@@ -0,0 +1,272 @@
+package com.evaluacion.nisum.embedded;
+
+import com.evaluacion.nisum.config.EmbeddedStoreProperties;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserStore;
+import com.evaluacion.nisum.util.UserIdGenerator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * In-process {@link UserStore} for deployments without a database ({@code embedded} profile).
+ * <p>
+ * Users live in a concurrent map keyed by id, with a second map from email to id. Emails are
+ * reserved in that map before anything is written, so two registrations of the same email can
+ * never both succeed, the same guarantee as the unique {@code email} column. Inserts are appended to
+ * a memory-mapped {@link UserJournal}, one frame per call so a batch is kept or lost as a whole, and
+ * forced to disk before returning unless {@code embedded-store.sync-interval} says otherwise.
+ * <p>
+ * Once the journal written since the last snapshot outgrows {@code embedded-store.snapshot-threshold}
+ * (or the last snapshot, if larger), a background thread writes a new {@link UserSnapshot} and
+ * deletes the segments it covers. Startup loads the newest snapshot and replays the journal after
+ * it.
+ */
+@Slf4j
+@Component
+@Profile("embedded")
+public class EmbeddedUserStore implements UserStore, DisposableBean {
+
+    private final Map<UUID, User> users = new ConcurrentHashMap<>();
+    private final Map<String, UUID> idsByEmail = new ConcurrentHashMap<>();
+
+    private final UserIdGenerator userIdGenerator;
+    private final Path directory;
+    private final long snapshotThreshold;
+    private final boolean syncEveryWrite;
+    private final UserJournal journal;
+    private final ScheduledExecutorService maintenance;
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final Timer snapshotTimer;
+
+    /**
+     * Journal bytes written since the last snapshot; updated while holding {@link #journal}.
+     */
+    private volatile long journalBytes;
+    private volatile long lastSnapshotBytes;
+
+    public EmbeddedUserStore(EmbeddedStoreProperties properties, UserIdGenerator userIdGenerator,
+                             MeterRegistry meterRegistry) throws IOException {
+        this.userIdGenerator = userIdGenerator;
+        this.directory = properties.getDirectory();
+        this.snapshotThreshold = properties.getSnapshotThreshold().toBytes();
+        this.syncEveryWrite = properties.getSyncInterval().isZero();
+        Files.createDirectories(directory);
+
+        long started = System.nanoTime();
+        OptionalLong snapshot = UserSnapshot.latest(directory);
+        if (snapshot.isPresent()) {
+            Path file = UserSnapshot.file(directory, snapshot.getAsLong());
+            UserSnapshot.read(file, this::restore);
+            lastSnapshotBytes = Files.size(file);
+        }
+        long fromSequence = snapshot.orElse(1);
+        this.journal = UserJournal.open(directory, Math.toIntExact(properties.getSegmentSize().toBytes()),
+                fromSequence, this::restore);
+        this.journalBytes = journal.replayedBytes();
+        journal.deleteBefore(fromSequence);
+        log.info("Almacén embebido recuperado en {} ms: {} usuarios (instantánea de {} bytes, {} bytes de diario)",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), users.size(), lastSnapshotBytes, journalBytes);
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("embedded-store-maintenance").daemon().factory());
+        if (!syncEveryWrite) {
+            long interval = properties.getSyncInterval().toMillis();
+            maintenance.scheduleWithFixedDelay(this::syncSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("embedded.store.users", users, Map::size)
+                .description("Users held by the embedded store")
+                .register(meterRegistry);
+        Gauge.builder("embedded.store.journal.size", this, store -> store.journalBytes)
+                .description("Journal bytes written since the last snapshot")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.snapshotTimer = Timer.builder("embedded.store.snapshot")
+                .description("Time to write a snapshot of the embedded store")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return email != null && idsByEmail.containsKey(email);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        for (String email : emails) {
+            if (existsByEmail(email)) {
+                existing.add(email);
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        return Optional.ofNullable(users.get(id)).map(EmbeddedUserStore::copy);
+    }
+
+    @Override
+    public long count() {
+        return users.size();
+    }
+
+    @Override
+    public User save(User user) {
+        saveAll(List.of(user));
+        return user;
+    }
+
+    @Override
+    public List<User> saveAll(List<User> batch) {
+        List<User> copies = new ArrayList<>(batch.size());
+        for (User user : batch) {
+            if (user.getId() == null) {
+                user.setId(userIdGenerator.next());
+            }
+            copies.add(copy(user));
+        }
+        reserve(copies);
+        UserJournal.Written written;
+        try {
+            ByteBuffer frame = UserRecords.encodeFrame(copies);
+            synchronized (journal) {
+                written = journal.append(frame);
+                journalBytes += frame.limit();
+                copies.forEach(user -> users.put(user.getId(), user));
+            }
+        } catch (IOException | RuntimeException e) {
+            release(copies, copies.size());
+            throw new DataAccessResourceFailureException("No se pudo escribir en el diario del almacén embebido", e);
+        }
+        batch.forEach(user -> user.setNewEntity(false));
+        if (syncEveryWrite) {
+            try {
+                written.force();
+            } catch (UncheckedIOException e) {
+                throw new DataAccessResourceFailureException("No se pudo sincronizar el diario del almacén embebido", e);
+            }
+        }
+        if (journalBytes >= Math.max(snapshotThreshold, lastSnapshotBytes) && snapshotRunning.compareAndSet(false, true)) {
+            maintenance.execute(this::snapshot);
+        }
+        return batch;
+    }
+
+    /**
+     * Writes a snapshot of every user and drops the journal segments it makes redundant.
+     */
+    void snapshot() {
+        try {
+            long started = System.nanoTime();
+            long sequence;
+            synchronized (journal) {
+                sequence = journal.roll();
+                journalBytes = 0;
+            }
+            // Users appended after the roll may be included too; replaying them again is harmless.
+            lastSnapshotBytes = UserSnapshot.write(directory, sequence, users.values());
+            journal.deleteBefore(sequence);
+            snapshotTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.info("Instantánea del almacén embebido escrita: {} usuarios, {} bytes", users.size(), lastSnapshotBytes);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("No se pudo escribir la instantánea del almacén embebido; el diario se conserva", e);
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        maintenance.shutdown();
+        maintenance.awaitTermination(1, TimeUnit.MINUTES);
+        synchronized (journal) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Claims the ids and emails of a batch, all or none.
+     */
+    private void reserve(List<User> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            User user = batch.get(i);
+            if (users.containsKey(user.getId())) {
+                release(batch, i);
+                throw new DuplicateKeyException("Ya existe un usuario con el id " + user.getId());
+            }
+            if (user.getEmail() != null && idsByEmail.putIfAbsent(user.getEmail(), user.getId()) != null) {
+                release(batch, i);
+                throw new DuplicateKeyException("El correo ya está registrado: " + user.getEmail());
+            }
+        }
+    }
+
+    private void release(List<User> batch, int count) {
+        for (int i = 0; i < count; i++) {
+            User user = batch.get(i);
+            if (user.getEmail() != null) {
+                idsByEmail.remove(user.getEmail(), user.getId());
+            }
+        }
+    }
+
+    private void restore(User user) {
+        if (users.putIfAbsent(user.getId(), user) == null && user.getEmail() != null) {
+            idsByEmail.put(user.getEmail(), user.getId());
+        }
+    }
+
+    private void syncSafely() {
+        UserJournal.Written written;
+        synchronized (journal) {
+            written = journal.written();
+        }
+        try {
+            written.force();
+        } catch (RuntimeException e) {
+            log.error("No se pudo sincronizar el diario del almacén embebido", e);
+        }
+    }
+
+    /**
+     * Users in the maps are never handed out, so nothing outside can change them.
+     */
+    private static User copy(User user) {
+        return user.toBuilder()
+                .phones(user.getPhones() == null ? null : user.getPhones().stream()
+                        .map(phone -> phone.toBuilder().build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .newEntity(false)
+                .build();
+    }
+}
@@ -0,0 +1,189 @@
+package com.evaluacion.nisum.embedded;
+
+import com.evaluacion.nisum.model.User;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of inserted users, split into fixed-size segment files that are written
+ * through a memory mapping.
+ * <p>
+ * Appending a frame is a copy into the mapped segment; whether it is on disk is up to the caller,
+ * who forces the returned range (or the whole segment periodically). After every frame a zero
+ * length is written, so a recovery stops exactly where the last complete frame ends, even over a
+ * segment that once held a longer, torn tail.
+ * <p>
+ * Segments are numbered in write order. A snapshot taken after {@link #roll()} covers every
+ * segment before the new one, which can then be deleted with {@link #deleteBefore(long)}.
+ * <p>
+ * Not thread-safe: the store serializes appends and rolls.
+ */
+@Slf4j
+final class UserJournal implements Closeable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private long sequence;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long replayedBytes;
+
+    private UserJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Replays every segment from {@code fromSequence} on and opens the last one for appending.
+     *
+     * @param replay receives every user in the order they were written
+     */
+    static UserJournal open(Path directory, int segmentSize, long fromSequence, Consumer<User> replay) throws IOException {
+        UserJournal journal = new UserJournal(directory, segmentSize);
+        List<Long> sequences = segmentSequences(directory).stream().filter(sequence -> sequence >= fromSequence).toList();
+        if (sequences.isEmpty()) {
+            journal.map(Math.max(fromSequence, 1));
+            return journal;
+        }
+        for (int i = 0; i < sequences.size(); i++) {
+            journal.map(sequences.get(i));
+            journal.replay(replay);
+            if (i < sequences.size() - 1) {
+                journal.channel.close();
+            }
+        }
+        journal.writeEndMarker();
+        return journal;
+    }
+
+    /**
+     * Copies a frame into the current segment, starting a new segment if it does not fit.
+     *
+     * @return the written range, to be forced to disk
+     */
+    Written append(ByteBuffer frame) throws IOException {
+        int length = frame.remaining();
+        if (length + Integer.BYTES > segmentSize) {
+            throw new IOException("El bloque de " + length + " bytes no cabe en un segmento del diario");
+        }
+        if (length + Integer.BYTES > segment.remaining()) {
+            roll();
+        }
+        int offset = segment.position();
+        segment.put(frame);
+        writeEndMarker();
+        return new Written(segment, offset, length);
+    }
+
+    /**
+     * Everything written to the current segment so far.
+     */
+    Written written() {
+        return new Written(segment, 0, segment.position());
+    }
+
+    /**
+     * Forces the current segment and starts a new, empty one.
+     *
+     * @return the number of the new segment
+     */
+    long roll() throws IOException {
+        segment.force();
+        channel.close();
+        map(sequence + 1);
+        return sequence;
+    }
+
+    /**
+     * Deletes the segments older than {@code sequence}, already covered by a snapshot.
+     */
+    void deleteBefore(long sequence) throws IOException {
+        for (long older : segmentSequences(directory)) {
+            if (older < sequence) {
+                Files.deleteIfExists(segmentFile(older));
+            }
+        }
+    }
+
+    /**
+     * Bytes of frames found while opening the journal.
+     */
+    long replayedBytes() {
+        return replayedBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    private void map(long sequence) throws IOException {
+        this.sequence = sequence;
+        this.channel = FileChannel.open(segmentFile(sequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping past the end grows the file; the new bytes read as zeros, i.e. the end marker.
+        this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, channel.size()));
+    }
+
+    private void replay(Consumer<User> replay) {
+        List<User> users;
+        while ((users = UserRecords.readFrame(segment)) != null) {
+            users.forEach(replay);
+        }
+        replayedBytes += segment.position();
+        if (segment.remaining() >= Integer.BYTES && segment.getInt(segment.position()) != 0) {
+            log.warn("Diario {} truncado en el byte {}: el último bloque estaba incompleto",
+                    segmentFile(sequence).getFileName(), segment.position());
+        }
+    }
+
+    private void writeEndMarker() {
+        if (segment.remaining() >= Integer.BYTES) {
+            segment.putInt(segment.position(), 0);
+        }
+    }
+
+    private Path segmentFile(long sequence) {
+        return directory.resolve(PREFIX + String.format("%020d", sequence) + SUFFIX);
+    }
+
+    private static List<Long> segmentSequences(Path directory) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> sequences.add(Long.parseLong(name, PREFIX.length(), name.length() - SUFFIX.length(), 10)));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    /**
+     * A range of a segment that has been written and may not be on disk yet.
+     */
+    record Written(MappedByteBuffer segment, int offset, int length) {
+
+        void force() {
+            if (length > 0) {
+                segment.force(offset, length);
+            }
+        }
+    }
+}
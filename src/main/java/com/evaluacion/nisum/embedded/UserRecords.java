@@ -0,0 +1,216 @@
+package com.evaluacion.nisum.embedded;
+
+import com.evaluacion.nisum.model.Phone;
+import com.evaluacion.nisum.model.User;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary encoding of users shared by the journal and the snapshot.
+ * <p>
+ * Users are written in frames: {@code [payload length][CRC32C of payload][payload]}, where the
+ * payload is a user count followed by the users. A frame is the unit of atomicity: when it is cut
+ * short or its checksum does not match, none of its users is read back. A length of {@code 0}
+ * marks the end of the data.
+ */
+final class UserRecords {
+
+    static final int FRAME_HEADER = 8;
+
+    private static final int NULL_LENGTH = -1;
+    private static final int NULL_NANO = -1;
+
+    private UserRecords() {
+    }
+
+    /**
+     * @return a buffer holding one whole frame, positioned at its start
+     */
+    static ByteBuffer encodeFrame(List<User> users) {
+        Encoder encoder = new Encoder(FRAME_HEADER + 512 * users.size());
+        encoder.buffer.position(FRAME_HEADER);
+        encoder.putInt(users.size());
+        for (User user : users) {
+            encoder.putUser(user);
+        }
+        ByteBuffer frame = encoder.buffer.flip();
+        int payloadLength = frame.limit() - FRAME_HEADER;
+        CRC32C crc = new CRC32C();
+        crc.update(frame.slice(FRAME_HEADER, payloadLength));
+        frame.putInt(0, payloadLength);
+        frame.putInt(4, (int) crc.getValue());
+        return frame;
+    }
+
+    /**
+     * Reads the frame at the buffer's position and moves past it.
+     *
+     * @return its users, or {@code null} (position unchanged) if no whole, intact frame starts there
+     */
+    static List<User> readFrame(ByteBuffer source) {
+        int start = source.position();
+        if (source.remaining() < FRAME_HEADER) {
+            return null;
+        }
+        int length = source.getInt(start);
+        if (length <= 0 || length > source.remaining() - FRAME_HEADER) {
+            return null;
+        }
+        List<User> users = decodePayload(source.getInt(start + 4), source.slice(start + FRAME_HEADER, length));
+        if (users != null) {
+            source.position(start + FRAME_HEADER + length);
+        }
+        return users;
+    }
+
+    /**
+     * @return the users of the payload, or {@code null} if it does not match its checksum
+     */
+    static List<User> decodePayload(int expectedCrc, ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        try {
+            int count = payload.getInt();
+            List<User> users = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                users.add(getUser(payload));
+            }
+            return users;
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException | DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static User getUser(ByteBuffer in) {
+        UUID id = new UUID(in.getLong(), in.getLong());
+        String name = getString(in);
+        String email = getString(in);
+        String password = getString(in);
+        String token = getString(in);
+        LocalDateTime created = getDateTime(in);
+        LocalDateTime modified = getDateTime(in);
+        LocalDateTime lastLogin = getDateTime(in);
+        byte active = in.get();
+        int phoneCount = in.getInt();
+        List<Phone> phones = null;
+        if (phoneCount != NULL_LENGTH) {
+            phones = new ArrayList<>(Math.min(phoneCount, 16));
+            for (int i = 0; i < phoneCount; i++) {
+                phones.add(new Phone(getString(in), getString(in), getString(in)));
+            }
+        }
+        return User.builder()
+                .id(id)
+                .name(name)
+                .email(email)
+                .password(password)
+                .token(token)
+                .created(created)
+                .modified(modified)
+                .lastLogin(lastLogin)
+                .isActive(active == 2 ? null : active == 1)
+                .phones(phones)
+                .newEntity(false)
+                .build();
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer in) {
+        long epochSecond = in.getLong();
+        int nano = in.getInt();
+        return nano == NULL_NANO ? null : LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * Heap buffer that doubles when a value does not fit.
+     */
+    private static final class Encoder {
+
+        private ByteBuffer buffer;
+
+        Encoder(int capacity) {
+            this.buffer = ByteBuffer.allocate(capacity);
+        }
+
+        void putUser(User user) {
+            ensure(16);
+            buffer.putLong(user.getId().getMostSignificantBits());
+            buffer.putLong(user.getId().getLeastSignificantBits());
+            putString(user.getName());
+            putString(user.getEmail());
+            putString(user.getPassword());
+            putString(user.getToken());
+            putDateTime(user.getCreated());
+            putDateTime(user.getModified());
+            putDateTime(user.getLastLogin());
+            ensure(1);
+            buffer.put(user.getIsActive() == null ? 2 : (byte) (user.getIsActive() ? 1 : 0));
+            List<Phone> phones = user.getPhones();
+            putInt(phones == null ? NULL_LENGTH : phones.size());
+            if (phones != null) {
+                for (Phone phone : phones) {
+                    putString(phone.getNumber());
+                    putString(phone.getCityCode());
+                    putString(phone.getCountryCode());
+                }
+            }
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(NULL_LENGTH);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void putDateTime(LocalDateTime value) {
+            ensure(12);
+            if (value == null) {
+                buffer.putLong(0);
+                buffer.putInt(NULL_NANO);
+            } else {
+                buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+                buffer.putInt(value.getNano());
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+    }
+}
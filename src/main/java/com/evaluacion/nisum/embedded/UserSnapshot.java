@@ -0,0 +1,128 @@
+package com.evaluacion.nisum.embedded;
+
+import com.evaluacion.nisum.model.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Compacted copy of every user, named after the first journal segment it does not cover.
+ * <p>
+ * Written to a temporary file, forced and then renamed, so a snapshot on disk is always complete;
+ * a corrupt one stops the startup instead of silently losing users.
+ */
+final class UserSnapshot {
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".dat";
+    private static final int MAGIC = 0x4E55534E;
+    private static final int USERS_PER_FRAME = 1000;
+
+    private UserSnapshot() {
+    }
+
+    /**
+     * @return the sequence of the newest snapshot in the directory
+     */
+    static OptionalLong latest(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .mapToLong(name -> Long.parseLong(name, PREFIX.length(), name.length() - SUFFIX.length(), 10))
+                    .max();
+        }
+    }
+
+    static Path file(Path directory, long sequence) {
+        return directory.resolve(PREFIX + String.format("%020d", sequence) + SUFFIX);
+    }
+
+    static void read(Path file, Consumer<User> replay) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("La instantánea " + file + " no tiene un formato reconocido");
+            }
+            while (true) {
+                int length = in.readInt();
+                if (length == 0) {
+                    return;
+                }
+                int crc = in.readInt();
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                List<User> users = UserRecords.decodePayload(crc, ByteBuffer.wrap(payload));
+                if (users == null) {
+                    throw new IOException("La instantánea " + file + " está dañada");
+                }
+                users.forEach(replay);
+            }
+        } catch (EOFException e) {
+            throw new IOException("La instantánea " + file + " está incompleta", e);
+        }
+    }
+
+    /**
+     * Writes the snapshot and deletes the older ones.
+     *
+     * @return its size in bytes
+     */
+    static long write(Path directory, long sequence, Iterable<User> users) throws IOException {
+        Path target = file(directory, sequence);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            out.write(ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC).array());
+            List<User> frame = new ArrayList<>(USERS_PER_FRAME);
+            for (User user : users) {
+                frame.add(user);
+                if (frame.size() == USERS_PER_FRAME) {
+                    writeFrame(frame, out);
+                }
+            }
+            writeFrame(frame, out);
+            out.write(new byte[Integer.BYTES]);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long size = Files.size(target);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path older : files.filter(file -> isSnapshotBefore(file, sequence)).toList()) {
+                Files.deleteIfExists(older);
+            }
+        }
+        return size;
+    }
+
+    private static void writeFrame(List<User> users, OutputStream out) throws IOException {
+        if (users.isEmpty()) {
+            return;
+        }
+        ByteBuffer frame = UserRecords.encodeFrame(users);
+        out.write(frame.array(), frame.position(), frame.remaining());
+        users.clear();
+    }
+
+    private static boolean isSnapshotBefore(Path file, long sequence) {
+        String name = file.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+                && Long.parseLong(name, PREFIX.length(), name.length() - SUFFIX.length(), 10) < sequence;
+    }
+}
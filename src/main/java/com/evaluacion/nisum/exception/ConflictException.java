@@ -0,0 +1,17 @@
+package com.evaluacion.nisum.exception;
+
+/**
+ * A request that conflicts with a stored user. Answered with 409 by {@link GlobalExceptionHandler}.
+ * <p>
+ * The fixed conflicts are preallocated and shared between threads, like the fixed
+ * {@link ValidationException}s: no stack trace, no suppressed exceptions and no other state that
+ * could change after construction.
+ */
+public final class ConflictException extends RuntimeException {
+
+    public static final ConflictException EMAIL_ALREADY_REGISTERED = new ConflictException("El correo ya está registrado");
+
+    private ConflictException(String message) {
+        super(message, null, false, false);
+    }
+}
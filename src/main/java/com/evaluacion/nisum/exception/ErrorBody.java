@@ -0,0 +1,50 @@
+package com.evaluacion.nisum.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@code {"mensaje": ...}} bodies written by {@link GlobalExceptionHandler}, the same bytes Jackson
+ * writes for a single-entry map. Bodies for the fixed rejection messages are encoded once at class
+ * load; any other message is encoded per response.
+ */
+final class ErrorBody {
+
+    private static final byte[] PREFIX = "{\"mensaje\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL_MESSAGE = "{\"mensaje\":null}".getBytes(StandardCharsets.UTF_8);
+
+    private static final Map<String, byte[]> PREPARED = Stream.of(
+                    ValidationException.INVALID_EMAIL.getMessage(),
+                    ValidationException.INVALID_PASSWORD.getMessage(),
+                    ConflictException.EMAIL_ALREADY_REGISTERED.getMessage(),
+                    OverloadedException.MESSAGE)
+            .collect(Collectors.toUnmodifiableMap(message -> message, ErrorBody::encode));
+
+    private ErrorBody() {
+    }
+
+    /**
+     * @return the body; shared for the fixed messages, so it must not be modified
+     */
+    static byte[] of(String message) {
+        if (message == null) {
+            return NULL_MESSAGE;
+        }
+        byte[] body = PREPARED.get(message);
+        return body != null ? body : encode(message);
+    }
+
+    private static byte[] encode(String message) {
+        byte[] quoted = JsonStringEncoder.getInstance().quoteAsUTF8(message);
+        byte[] body = new byte[PREFIX.length + quoted.length + SUFFIX.length];
+        System.arraycopy(PREFIX, 0, body, 0, PREFIX.length);
+        System.arraycopy(quoted, 0, body, PREFIX.length, quoted.length);
+        System.arraycopy(SUFFIX, 0, body, PREFIX.length + quoted.length, SUFFIX.length);
+        return body;
+    }
+}
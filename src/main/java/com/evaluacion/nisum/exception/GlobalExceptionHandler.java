@@ -1,35 +1,96 @@
 package com.evaluacion.nisum.exception;
 
+import com.evaluacion.nisum.metrics.RegistrationMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UrlPathHelper;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
 
+/**
+ * Answers every error with {@code {"mensaje": ...}}. Bodies are written as bytes by {@link ErrorBody},
+ * pre-serialized for the fixed rejections, instead of a map per response for Jackson.
+ * <p>
+ * Errors of {@code POST /registro} and {@code /registro/lote} are also counted as
+ * {@code registration.outcome}; errors of any other endpoint are not registration outcomes.
+ */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private static final Set<String> REGISTRATION_PATHS = Set.of("/registro", "/registro/lote");
+
+    /**
+     * Optional so the handler also works in web slices without the metrics infrastructure.
+     */
+    private final ObjectProvider<RegistrationMetrics> registrationMetrics;
+
     @ExceptionHandler(ResponseStatusException.class)
-    public ResponseEntity<Map<String, String>> handleResponseStatusException(ResponseStatusException ex) {
-        Map<String, String> response = new HashMap<>();
-        response.put("mensaje", ex.getReason());
-        return new ResponseEntity<>(response, ex.getStatusCode());
+    public ResponseEntity<byte[]> handleResponseStatusException(ResponseStatusException ex) {
+        countOutcome(ex.getStatusCode().value());
+        return body(ex.getStatusCode(), ex.getReason());
+    }
+
+    /**
+     * Shed requests: 503 with {@code Retry-After} in whole seconds, at least one.
+     */
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<byte[]> handleOverloadedException(OverloadedException ex) {
+        countOutcome(HttpStatus.SERVICE_UNAVAILABLE.value());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(ex.getReason()));
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<byte[]> handleConflictException(ConflictException ex) {
+        countOutcome(HttpStatus.CONFLICT.value());
+        return body(HttpStatus.CONFLICT, ex.getMessage());
     }
 
     @ExceptionHandler(ValidationException.class)
-    public ResponseEntity<Map<String, String>> handleValidationException(ValidationException ex) {
-        Map<String, String> response = new HashMap<>();
-        response.put("mensaje", ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    public ResponseEntity<byte[]> handleValidationException(ValidationException ex) {
+        countOutcome(HttpStatus.BAD_REQUEST.value());
+        return body(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
-        Map<String, String> response = new HashMap<>();
-        response.put("mensaje", "Error inesperado: " + ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<byte[]> handleGenericException(Exception ex) {
+        countOutcome(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        return body(HttpStatus.INTERNAL_SERVER_ERROR, "Error inesperado: " + ex.getMessage());
+    }
+
+    private static ResponseEntity<byte[]> body(HttpStatusCode status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(message));
+    }
+
+    private void countOutcome(int status) {
+        RegistrationMetrics metrics = registrationMetrics.getIfAvailable();
+        if (metrics != null && isRegistration()) {
+            metrics.outcome(status);
+        }
+    }
+
+    /**
+     * Read from the request bound to the thread, which WebFlux does not have; the reactive
+     * registration does not count outcomes anyway.
+     */
+    private static boolean isRegistration() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && REGISTRATION_PATHS.contains(UrlPathHelper.defaultInstance.getPathWithinApplication(attributes.getRequest()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.evaluacion.nisum.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * A request shed because the service is over capacity. Answered with 503 and a
+ * {@code Retry-After} header by {@link GlobalExceptionHandler}.
+ */
+public class OverloadedException extends ResponseStatusException {
+
+    static final String MESSAGE = "El servicio está saturado, intente nuevamente";
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final transient Duration retryAfter;
+
+    public OverloadedException() {
+        this(DEFAULT_RETRY_AFTER);
+    }
+
+    public OverloadedException(Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, MESSAGE);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Shedding is routine under overload; the stack trace would cost more than the request.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,6 +1,15 @@
 package com.evaluacion.nisum.exception;
 
 public class ValidationException extends RuntimeException {
+
+    /**
+     * Preallocated for the fixed rule violations, which invalid payloads hit on every request.
+     * Shared between threads, so they carry no stack trace and accept no suppressed exceptions.
+     */
+    public static final ValidationException INVALID_EMAIL = preallocated("Formato de correo inválido");
+
+    public static final ValidationException INVALID_PASSWORD = preallocated("La contraseña no cumple con los requisitos");
+
     public ValidationException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -8,4 +17,12 @@ public class ValidationException extends RuntimeException {
     public ValidationException(String message) {
         super(message);
     }
+
+    private ValidationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    private static ValidationException preallocated(String message) {
+        return new ValidationException(message, false);
+    }
 }
@@ -0,0 +1,108 @@
+package com.evaluacion.nisum.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a UTF-8 file line by line from a byte offset, keeping track of the offset after the last
+ * line returned so a later run can start exactly there. Only one buffer is kept in memory,
+ * whatever the size of the file.
+ */
+final class ImportFileReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream input;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private byte[] line = new byte[256];
+    private long offset;
+    private long lineNumber;
+
+    private ImportFileReader(InputStream input, long offset, long lineNumber) {
+        this.input = input;
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Opens the file positioned at {@code offset}, which must be the start of a line.
+     *
+     * @param lineNumber number of the lines before {@code offset}, to keep reporting 1-based line numbers
+     */
+    static ImportFileReader open(Path file, long offset, long lineNumber) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(offset);
+        return new ImportFileReader(Channels.newInputStream(channel), offset, lineNumber);
+    }
+
+    /**
+     * @return the next line without its terminator ({@code \n} or {@code \r\n}), or {@code null} at
+     * the end of the file
+     */
+    String readLine() throws IOException {
+        int length = 0;
+        boolean read = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                break;
+            }
+            read = true;
+            byte b = buffer[position++];
+            offset++;
+            if (b == '\n') {
+                break;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = b;
+        }
+        if (!read) {
+            return null;
+        }
+        lineNumber++;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the byte offset right after the last line returned
+     */
+    long offset() {
+        return offset;
+    }
+
+    /**
+     * @return the 1-based number of the last line returned
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private boolean fill() throws IOException {
+        int count = input.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
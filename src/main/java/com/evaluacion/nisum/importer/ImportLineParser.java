@@ -0,0 +1,127 @@
+package com.evaluacion.nisum.importer;
+
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserRequest;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns one line of an import file into a {@link UserRequest}.
+ * <p>
+ * NDJSON lines use the same JSON as {@code POST /registro}. CSV lines have the columns
+ * {@code name,email,password,phones}, where {@code phones} lists {@code number:citycode:contrycode}
+ * entries separated by {@code |}; fields may be quoted with {@code "} (a quote inside is written
+ * {@code ""}).
+ */
+abstract class ImportLineParser {
+
+    static final String CSV_HEADER = "name,email,password,phones";
+
+    abstract UserRequest parse(String line) throws IOException;
+
+    /**
+     * Whether the first line of the file is a header to skip.
+     */
+    abstract boolean isHeader(String line);
+
+    static ImportLineParser forFile(String fileName, ObjectReader userRequestReader) {
+        String lowerCase = fileName.toLowerCase();
+        if (lowerCase.endsWith(".csv")) {
+            return new Csv();
+        }
+        if (lowerCase.endsWith(".ndjson") || lowerCase.endsWith(".jsonl") || lowerCase.endsWith(".json")) {
+            return new Ndjson(userRequestReader);
+        }
+        throw new IllegalArgumentException("Formato de archivo no soportado: " + fileName);
+    }
+
+    private static final class Ndjson extends ImportLineParser {
+
+        private final ObjectReader reader;
+
+        private Ndjson(ObjectReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        UserRequest parse(String line) throws IOException {
+            return reader.readValue(line);
+        }
+
+        @Override
+        boolean isHeader(String line) {
+            return false;
+        }
+    }
+
+    private static final class Csv extends ImportLineParser {
+
+        @Override
+        UserRequest parse(String line) throws IOException {
+            List<String> fields = fields(line);
+            if (fields.size() != 4) {
+                throw new IOException("se esperaban 4 columnas y hay " + fields.size());
+            }
+            return UserRequest.builder()
+                    .name(fields.get(0))
+                    .email(fields.get(1))
+                    .password(fields.get(2))
+                    .phones(phones(fields.get(3)))
+                    .build();
+        }
+
+        @Override
+        boolean isHeader(String line) {
+            return line.trim().equalsIgnoreCase(CSV_HEADER);
+        }
+
+        private static List<PhoneDto> phones(String value) throws IOException {
+            List<PhoneDto> phones = new ArrayList<>();
+            if (value.isEmpty()) {
+                return phones;
+            }
+            for (String entry : value.split("\\|")) {
+                String[] parts = entry.split(":", -1);
+                if (parts.length != 3) {
+                    throw new IOException("teléfono inválido: " + entry);
+                }
+                phones.add(PhoneDto.builder().number(parts[0]).cityCode(parts[1]).countryCode(parts[2]).build());
+            }
+            return phones;
+        }
+
+        private static List<String> fields(String line) throws IOException {
+            List<String> fields = new ArrayList<>(4);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IOException("comillas sin cerrar");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.evaluacion.nisum.importer;
+
+import com.evaluacion.nisum.config.ImportProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports {@code import.file} once the application has started. Combined with
+ * {@code spring.main.web-application-type=none} the application exits when the import ends:
+ * <pre>{@code
+ * java -jar nisum.jar --spring.main.web-application-type=none --import.file=usuarios.ndjson
+ * }</pre>
+ */
+@Slf4j
+@Component
+@Profile("!reactive & !embedded")
+@ConditionalOnProperty(prefix = "import", name = "file")
+@RequiredArgsConstructor
+public class UserImportRunner implements ApplicationRunner {
+
+    private final UserImporter userImporter;
+    private final ImportProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        UserImporter.Result result = userImporter.importFile(properties.getFile());
+        log.info("Importación de {} terminada: {} importados, {} rechazados",
+                properties.getFile(), result.imported(), result.rejected());
+    }
+}
@@ -0,0 +1,308 @@
+package com.evaluacion.nisum.importer;
+
+import com.evaluacion.nisum.config.ImportProperties;
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.exception.OverloadedException;
+import com.evaluacion.nisum.exception.ValidationException;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserStore;
+import com.evaluacion.nisum.security.PasswordHashingService;
+import com.evaluacion.nisum.service.ValidationService;
+import com.evaluacion.nisum.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports users from an NDJSON or CSV file with the same rules as {@code POST /registro}.
+ * <p>
+ * The file is read as a stream, {@code import.chunk-size} lines at a time. Each chunk is parsed,
+ * validated and hashed in parallel, checked for emails repeated inside the chunk or already
+ * registered (one query per chunk; earlier chunks are committed by then, so repeats across the
+ * file are caught too), and committed in one transaction (one per shard when sharded).
+ * <p>
+ * After every commit the rejected lines of the chunk are appended to the reject file and the byte
+ * offset reached is saved to the checkpoint file. A new run on the same file resumes from that
+ * offset; if a run stops between the two writes, the lines of the last chunk are reported again.
+ */
+@Slf4j
+@Component
+@Profile("!reactive & !embedded")
+public class UserImporter {
+
+    private static final String EMAIL_ALREADY_REGISTERED = "El correo ya está registrado";
+
+    private static final long HASH_RETRY_BACKOFF_MILLIS = 50;
+
+    private final ValidationService validationService;
+    private final PasswordHashingService passwordHashing;
+    private final JwtUtil jwtUtil;
+    private final UserStore userStore;
+    private final ImportProperties properties;
+    private final ObjectReader userRequestReader;
+
+    public UserImporter(ValidationService validationService, PasswordHashingService passwordHashing, JwtUtil jwtUtil,
+                        UserStore userStore, ImportProperties properties,
+                        ObjectMapper objectMapper) {
+        this.validationService = validationService;
+        this.passwordHashing = passwordHashing;
+        this.jwtUtil = jwtUtil;
+        this.userStore = userStore;
+        this.properties = properties;
+        this.userRequestReader = objectMapper.readerFor(UserRequest.class);
+    }
+
+    /**
+     * Imports a file, resuming from its checkpoint if there is one.
+     *
+     * @return counts for this run only
+     */
+    public Result importFile(Path file) throws IOException {
+        Path rejectFile = properties.getRejectFile() != null ? properties.getRejectFile() : sibling(file, ".rejects");
+        Path checkpointFile = properties.getCheckpointFile() != null ? properties.getCheckpointFile() : sibling(file, ".checkpoint");
+        Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+        ImportLineParser parser = ImportLineParser.forFile(file.getFileName().toString(), userRequestReader);
+        int parallelism = properties.getParallelism() > 0 ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+
+        if (checkpoint.offset() > 0) {
+            log.info("Reanudando la importación de {} desde la línea {}", file, checkpoint.lineNumber() + 1);
+        }
+        long started = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try (ImportFileReader reader = ImportFileReader.open(file, checkpoint.offset(), checkpoint.lineNumber());
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            List<Line> chunk = new ArrayList<>(properties.getChunkSize());
+            String text;
+            while ((text = reader.readLine()) != null) {
+                if ((reader.lineNumber() == 1 && parser.isHeader(text)) || text.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(reader.lineNumber(), text));
+                if (chunk.size() == properties.getChunkSize()) {
+                    ChunkResult result = importChunk(chunk, parser, pool);
+                    imported += result.imported();
+                    rejected += writeRejects(result.rejects(), rejects);
+                    Checkpoint.write(checkpointFile, new Checkpoint(reader.offset(), reader.lineNumber()));
+                    chunk.clear();
+                    logProgress(reader.lineNumber(), imported, rejected, started);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                ChunkResult result = importChunk(chunk, parser, pool);
+                imported += result.imported();
+                rejected += writeRejects(result.rejects(), rejects);
+            }
+            Checkpoint.write(checkpointFile, new Checkpoint(reader.offset(), reader.lineNumber()));
+            logProgress(reader.lineNumber(), imported, rejected, started);
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(imported, rejected);
+    }
+
+    private ChunkResult importChunk(List<Line> chunk, ImportLineParser parser, ExecutorService pool) {
+        List<Parsed> parsed = new ArrayList<>(chunk.size());
+        try {
+            List<Callable<Parsed>> tasks = chunk.stream().<Callable<Parsed>>map(line -> () -> parse(line, parser)).toList();
+            for (Future<Parsed> result : pool.invokeAll(tasks)) {
+                parsed.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al procesar el bloque", e.getCause());
+        }
+
+        List<Reject> rejects = new ArrayList<>();
+        Map<String, Parsed> accepted = new HashMap<>();
+        for (Parsed line : parsed) {
+            if (line.error() != null) {
+                rejects.add(new Reject(line.line(), line.error()));
+            } else if (accepted.putIfAbsent(line.user().getEmail(), line) != null) {
+                rejects.add(new Reject(line.line(), "Correo repetido en el archivo (línea "
+                        + accepted.get(line.user().getEmail()).line().number() + ")"));
+            }
+        }
+        if (!accepted.isEmpty()) {
+            Set<String> existing = userStore.findExistingEmails(accepted.keySet());
+            for (String email : existing) {
+                rejects.add(new Reject(accepted.remove(email).line(), EMAIL_ALREADY_REGISTERED));
+            }
+        }
+
+        List<Parsed> toSave = accepted.values().stream()
+                .sorted((a, b) -> Long.compare(a.line().number(), b.line().number()))
+                .toList();
+        int imported = 0;
+        try {
+            userStore.saveAll(toSave.stream().map(Parsed::user).toList());
+            imported = toSave.size();
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered one of the emails after the lookup; save one by one so only the
+            // conflicting lines are rejected.
+            for (Parsed line : toSave) {
+                try {
+                    userStore.save(line.freshUser());
+                    imported++;
+                } catch (DataIntegrityViolationException conflict) {
+                    rejects.add(new Reject(line.line(), EMAIL_ALREADY_REGISTERED));
+                }
+            }
+        }
+        rejects.sort((a, b) -> Long.compare(a.line().number(), b.line().number()));
+        return new ChunkResult(imported, rejects);
+    }
+
+    private Parsed parse(Line line, ImportLineParser parser) {
+        UserRequest userRequest;
+        try {
+            userRequest = parser.parse(line.text());
+        } catch (IOException e) {
+            return Parsed.error(line, "Línea con formato inválido: " + e.getMessage());
+        }
+        try {
+            if (userRequest == null) {
+                throw ValidationException.INVALID_EMAIL;
+            }
+            validationService.validateEmail(userRequest.getEmail());
+            validationService.validatePassword(userRequest.getPassword());
+        } catch (ValidationException e) {
+            return Parsed.error(line, e.getMessage());
+        }
+        String passwordHash = hash(userRequest.getPassword());
+        User user = User.builder()
+                .name(userRequest.getName())
+                .email(userRequest.getEmail())
+                .password(passwordHash)
+                .token(jwtUtil.generateToken(userRequest.getName()))
+                .phones(userRequest.getPhones() == null ? new ArrayList<>() : PhoneDto.toPhones(userRequest.getPhones()))
+                .build();
+        return new Parsed(line, user, null);
+    }
+
+    /**
+     * Hashes on the shared hashing pool, which also serves registrations and sheds hashes when its
+     * queue is full or a hash waits too long for a thread. No client waits on an import, so it
+     * backs off and tries again instead of failing the run.
+     */
+    private String hash(String password) {
+        long backoffMillis = HASH_RETRY_BACKOFF_MILLIS;
+        while (true) {
+            try {
+                return passwordHashing.hash(password);
+            } catch (OverloadedException e) {
+                log.debug("Pool de hashing saturado; reintento en {} ms", backoffMillis);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Importación interrumpida", interrupted);
+                }
+                backoffMillis = Math.min(backoffMillis * 2, e.getRetryAfter().toMillis());
+            }
+        }
+    }
+
+    private static long writeRejects(List<Reject> rejects, BufferedWriter writer) throws IOException {
+        for (Reject reject : rejects) {
+            writer.write(Long.toString(reject.line().number()));
+            writer.write('\t');
+            writer.write(reject.reason());
+            writer.write('\t');
+            writer.write(reject.line().text());
+            writer.newLine();
+        }
+        writer.flush();
+        return rejects.size();
+    }
+
+    private static void logProgress(long lineNumber, long imported, long rejected, long started) {
+        double seconds = Math.max(System.nanoTime() - started, 1) / 1e9;
+        log.info("Importación: línea {}, {} importados, {} rechazados ({} usuarios/s)",
+                lineNumber, imported, rejected, Math.round(imported / seconds));
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    /**
+     * Outcome of a run.
+     */
+    public record Result(long imported, long rejected) {
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private record Parsed(Line line, User user, String error) {
+
+        static Parsed error(Line line, String error) {
+            return new Parsed(line, null, error);
+        }
+
+        /**
+         * Copy of the user for a retry, free of what the rolled-back attempt left on it.
+         */
+        User freshUser() {
+            return user.toBuilder().newEntity(true).phones(new ArrayList<>(user.getPhones())).build();
+        }
+    }
+
+    private record Reject(Line line, String reason) {
+    }
+
+    private record ChunkResult(int imported, List<Reject> rejects) {
+    }
+
+    /**
+     * Position after the last committed chunk.
+     */
+    private record Checkpoint(long offset, long lineNumber) {
+
+        static Checkpoint read(Path file) throws IOException {
+            if (!Files.exists(file)) {
+                return new Checkpoint(0, 0);
+            }
+            String[] parts = Files.readString(file).trim().split("\\s+");
+            return new Checkpoint(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        }
+
+        static void write(Path file, Checkpoint checkpoint) {
+            try {
+                Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.writeString(temporary, checkpoint.offset() + " " + checkpoint.lineNumber() + "\n");
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo guardar el punto de control " + file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.evaluacion.nisum.metrics;
+
+import com.evaluacion.nisum.repository.EmailIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the {@link EmailIndex} footprint and false-positive rates as gauges.
+ */
+@Component
+@Profile("!reactive & !embedded")
+@RequiredArgsConstructor
+public class EmailIndexMetrics implements MeterBinder {
+
+    private final EmailIndex emailIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("email.index.memory", emailIndex, index -> index.stats().memoryBytes())
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("email.index.false.positive.rate.expected", emailIndex,
+                        index -> index.stats().expectedFalsePositiveRate())
+                .register(registry);
+        Gauge.builder("email.index.false.positive.rate.observed", emailIndex,
+                        index -> index.stats().observedFalsePositiveRate())
+                .register(registry);
+    }
+}
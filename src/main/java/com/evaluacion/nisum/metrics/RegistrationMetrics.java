@@ -0,0 +1,97 @@
+package com.evaluacion.nisum.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the registration pipeline.
+ * <p>
+ * Every meter is created once, so recording a phase is a {@code System.nanoTime()} call plus a
+ * histogram update, with no lookup or allocation:
+ * <pre>{@code
+ * long t = System.nanoTime();
+ * validationService.validateEmail(email);
+ * t = metrics.record(Phase.EMAIL_VALIDATION, t);
+ * }</pre>
+ */
+@Component
+public class RegistrationMetrics {
+
+    public enum Phase {
+        EMAIL_VALIDATION("email_validation"),
+        PASSWORD_VALIDATION("password_validation"),
+        DUPLICATE_CHECK("find_by_email"),
+        PASSWORD_HASH("password_hash"),
+        TOKEN("generate_token"),
+        SAVE("save"),
+        RESPONSE_MAPPING("response_mapping");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+    private final Counter created;
+    private final Counter badRequest;
+    private final Counter conflict;
+    private final Counter serverError;
+
+    public RegistrationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Phase phase : Phase.values()) {
+            timers.put(phase, Timer.builder("registration.phase")
+                    .description("Duration of each step of POST /registro")
+                    .tag("phase", phase.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(500))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry));
+        }
+        this.created = outcomeCounter(201);
+        this.badRequest = outcomeCounter(400);
+        this.conflict = outcomeCounter(409);
+        this.serverError = outcomeCounter(500);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} for the phase.
+     *
+     * @return the current {@code System.nanoTime()}, to be used as the start of the next phase
+     */
+    public long record(Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        timers.get(phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Counts a registration outcome by HTTP status.
+     */
+    public void outcome(int status) {
+        switch (status) {
+            case 201 -> created.increment();
+            case 400 -> badRequest.increment();
+            case 409 -> conflict.increment();
+            case 500 -> serverError.increment();
+            default -> outcomeCounter(status).increment();
+        }
+    }
+
+    private Counter outcomeCounter(int status) {
+        return Counter.builder("registration.outcome")
+                .description("Registration responses by HTTP status")
+                .tag("status", String.valueOf(status))
+                .register(registry);
+    }
+}
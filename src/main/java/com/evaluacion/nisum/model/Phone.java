@@ -1,31 +1,25 @@
 package com.evaluacion.nisum.model;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
+import jakarta.persistence.Embeddable;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 
+/**
+ * Phone of a {@link User}, stored as a row of the {@code user_phone} collection table: it has no
+ * identity of its own, so there is no id, sequence or join table to maintain.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
-@Entity
+@Embeddable
 public class Phone {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
     private String number;
 
-    @JsonProperty("citycode")
     private String cityCode;
 
-    @JsonProperty("contrycode")
     private String countryCode;
-}
\ No newline at end of file
+}
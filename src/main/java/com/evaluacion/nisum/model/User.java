@@ -1,16 +1,30 @@
 package com.evaluacion.nisum.model;
 
-import jakarta.persistence.CascadeType;
+import com.evaluacion.nisum.repository.EmailIndexListener;
+import com.evaluacion.nisum.repository.UserCacheListener;
+import com.evaluacion.nisum.repository.UserIdListener;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
-import jakarta.persistence.OneToMany;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.BatchSize;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,10 +35,16 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder(toBuilder = true)
 @Entity(name = "app_user")
-public class User {
+@Table(indexes = @Index(name = "idx_app_user_token", columnList = "token"))
+@EntityListeners({UserIdListener.class, EmailIndexListener.class, UserCacheListener.class})
+public class User implements Persistable<UUID> {
 
+    /**
+     * Assigned by the application so it is known before the insert (see write-behind mode);
+     * {@link UserIdListener} fills it in when the caller did not, with the generator chosen by
+     * {@code registration.id-generator}.
+     */
     @Id
-    @GeneratedValue
     private UUID id;
 
     private String name;
@@ -43,11 +63,61 @@ public class User {
     @Builder.Default
     private LocalDateTime lastLogin = LocalDateTime.now();
 
+    /**
+     * Sized for the signed token of any 255-character name (up to three UTF-8 bytes per character,
+     * Base64url-encoded) plus its {@code exp} and {@code jti} claims.
+     */
+    @Column(length = 2048)
     private String token;
 
     @Builder.Default
     private Boolean isActive = true;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    /**
+     * One insert per phone into {@code user_phone}, batched with the user; loading a user does not
+     * touch the table until the phones are read.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @CollectionTable(name = "user_phone", joinColumns = @JoinColumn(name = "user_id"))
     private List<Phone> phones;
-}
\ No newline at end of file
+
+    /**
+     * Tells Spring Data to persist rather than merge: the id is assigned, so it cannot tell a new
+     * user from a detached one by the id alone.
+     */
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Fallback for when {@link UserIdListener} is not managed by Spring.
+     */
+    @PrePersist
+    void assignId() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+    }
+
+    /**
+     * Keeps {@code modified}, and so the read API's ETag, in step with every update. Logins write
+     * {@code lastLogin} directly (see {@code LastLoginRecorder}) and do not count as a modification.
+     */
+    @PreUpdate
+    void touch() {
+        modified = LocalDateTime.now();
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        newEntity = false;
+    }
+}
@@ -0,0 +1,136 @@
+package com.evaluacion.nisum.repository;
+
+import com.evaluacion.nisum.config.RegistrationProperties;
+import com.evaluacion.nisum.sharding.ShardRouter;
+import com.evaluacion.nisum.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory membership index of registered emails, kept in front of {@link UserRepository}.
+ * <p>
+ * Backed by a {@link BloomFilter}: a negative answer is definite and lets callers skip the
+ * database, a positive one must be confirmed with {@link UserRepository#existsByEmail(String)}.
+ * Every persisted user is added through {@link EmailIndexListener}; existing rows are loaded once
+ * the application is ready. Until then, or when disabled, every email is a possible hit.
+ */
+@Slf4j
+@Component
+@Profile("!reactive & !embedded")
+public class EmailIndex {
+
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final RegistrationProperties.EmailIndex settings;
+    private final BloomFilter filter;
+    private volatile boolean ready;
+
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder confirmedHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmailIndex(UserRepository userRepository, ShardRouter shardRouter, RegistrationProperties registrationProperties) {
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.settings = registrationProperties.getEmailIndex();
+        this.filter = BloomFilter.create(settings.getExpectedInsertions(), settings.getFalsePositiveRate());
+    }
+
+    /**
+     * Loads every stored email, paging by key so each page is an index range scan; shards are read
+     * in parallel.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        long loaded = shardRouter.onEach(shard -> load()).stream().mapToLong(Long::longValue).sum();
+        ready = true;
+        log.info("Email index warmed with {} emails in {} ms: {}",
+                loaded, (System.nanoTime() - started) / 1_000_000, stats());
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            filter.put(email);
+        }
+    }
+
+    /**
+     * @return {@code false} only if the email is certainly not registered
+     */
+    public boolean mightContain(String email) {
+        if (!ready || email == null) {
+            return true;
+        }
+        if (!filter.mightContain(email)) {
+            definiteMisses.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records what the database answered for a possible hit, to measure the false-positive rate.
+     */
+    public void recordConfirmation(boolean exists) {
+        if (ready) {
+            (exists ? confirmedHits : falsePositives).increment();
+        }
+    }
+
+    private long load() {
+        long loaded = 0;
+        String after = "";
+        List<String> page;
+        do {
+            page = userRepository.findEmailsAfter(after, PageRequest.ofSize(settings.getWarmPageSize()));
+            for (String email : page) {
+                filter.put(email);
+            }
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == settings.getWarmPageSize());
+        return loaded;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Stats stats() {
+        long misses = definiteMisses.sum();
+        long falsePositiveCount = falsePositives.sum();
+        long absentLookups = misses + falsePositiveCount;
+        return new Stats(
+                filter.memoryBytes(),
+                filter.bitSize(),
+                filter.hashFunctions(),
+                filter.expectedFalsePositiveRate(),
+                absentLookups == 0 ? 0 : (double) falsePositiveCount / absentLookups,
+                misses,
+                confirmedHits.sum(),
+                falsePositiveCount);
+    }
+
+    /**
+     * @param memoryBytes               heap used by the bit array
+     * @param expectedFalsePositiveRate estimate from the current fill ratio
+     * @param observedFalsePositiveRate false positives over lookups of emails that were not registered
+     */
+    public record Stats(long memoryBytes, long bits, int hashFunctions, double expectedFalsePositiveRate,
+                        double observedFalsePositiveRate, long definiteMisses, long confirmedHits,
+                        long falsePositives) {
+    }
+}
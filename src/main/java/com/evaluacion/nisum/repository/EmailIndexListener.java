@@ -0,0 +1,31 @@
+package com.evaluacion.nisum.repository;
+
+import com.evaluacion.nisum.model.User;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the email of every user being persisted to the {@link EmailIndex}, whichever path saves it.
+ * <p>
+ * Runs on {@code @PrePersist} because the insert itself is deferred to flush; a rolled back insert
+ * only leaves a false positive behind. Instantiated by Hibernate through Spring's bean container;
+ * the index is looked up lazily because it depends on the repositories being built.
+ */
+@Component
+public class EmailIndexListener {
+
+    private final ObjectProvider<EmailIndex> emailIndex;
+
+    public EmailIndexListener(ObjectProvider<EmailIndex> emailIndex) {
+        this.emailIndex = emailIndex;
+    }
+
+    @PrePersist
+    public void onPersist(User user) {
+        EmailIndex index = emailIndex.getIfAvailable();
+        if (index != null) {
+            index.add(user.getEmail());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.evaluacion.nisum.repository;
+
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.service.UserBatchWriter;
+import com.evaluacion.nisum.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * {@link UserStore} over {@link UserRepository}; batches go through {@link UserBatchWriter}, one
+ * transaction per call.
+ * <p>
+ * Every operation keyed by email runs on the user's shard only (see {@link ShardRouter}); lookups by
+ * id and counts ask every shard. A batch spanning several shards is committed shard by shard, and
+ * if one of them fails the users already committed on the others are deleted again.
+ */
+@Slf4j
+@Component
+@Profile("!reactive & !embedded")
+@RequiredArgsConstructor
+public class JpaUserStore implements UserStore {
+
+    private final UserRepository userRepository;
+    private final UserBatchWriter userBatchWriter;
+    private final ShardRouter shardRouter;
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return shardRouter.on(shardRouter.shardFor(email), () -> userRepository.existsByEmail(email));
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (!shardRouter.isSharded()) {
+            return userRepository.findExistingEmails(emails);
+        }
+        Map<Integer, List<String>> byShard = new TreeMap<>();
+        for (String email : emails) {
+            byShard.computeIfAbsent(shardRouter.shardFor(email), shard -> new ArrayList<>()).add(email);
+        }
+        Set<String> existing = new HashSet<>();
+        shardRouter.onEach(shard -> byShard.containsKey(shard)
+                        ? userRepository.findExistingEmails(byShard.get(shard))
+                        : Set.<String>of())
+                .forEach(existing::addAll);
+        return existing;
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        return shardRouter.findFirst(shard -> userRepository.findById(id));
+    }
+
+    @Override
+    public long count() {
+        return shardRouter.onEach(shard -> userRepository.count()).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public User save(User user) {
+        return shardRouter.on(shardRouter.shardFor(user.getEmail()), () -> userRepository.save(user));
+    }
+
+    @Override
+    public User saveAndFlush(User user) {
+        return shardRouter.on(shardRouter.shardFor(user.getEmail()), () -> userRepository.saveAndFlush(user));
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        if (!shardRouter.isSharded()) {
+            return userBatchWriter.saveChunk(users);
+        }
+        Map<Integer, List<User>> byShard = new TreeMap<>();
+        for (User user : users) {
+            byShard.computeIfAbsent(shardRouter.shardFor(user.getEmail()), shard -> new ArrayList<>()).add(user);
+        }
+        Map<Integer, List<User>> committed = new TreeMap<>();
+        try {
+            for (Map.Entry<Integer, List<User>> shard : byShard.entrySet()) {
+                shardRouter.on(shard.getKey(), () -> userBatchWriter.saveChunk(shard.getValue()));
+                committed.put(shard.getKey(), shard.getValue());
+            }
+        } catch (RuntimeException e) {
+            committed.forEach(this::undo);
+            throw e;
+        }
+        return users;
+    }
+
+    private void undo(int shard, List<User> users) {
+        List<UUID> ids = users.stream().map(User::getId).toList();
+        try {
+            shardRouter.on(shard, () -> {
+                userRepository.deleteAllById(ids);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("No se pudieron eliminar {} usuarios del fragmento {} tras fallar el resto del lote", ids.size(), shard, e);
+        }
+    }
+}
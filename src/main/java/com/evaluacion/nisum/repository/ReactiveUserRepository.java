@@ -0,0 +1,83 @@
+package com.evaluacion.nisum.repository;
+
+import com.evaluacion.nisum.model.Phone;
+import com.evaluacion.nisum.model.User;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * R2DBC access to the {@code app_user} and {@code user_phone} tables for the {@code reactive} profile.
+ * Uses the same schema Hibernate generates for {@link User} and {@link Phone}.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+    private static final String INSERT_USER = """
+            insert into app_user (id, name, email, password, created, modified, last_login, token, is_active)
+            values (:id, :name, :email, :password, :created, :modified, :lastLogin, :token, :isActive)""";
+
+    private static final String INSERT_PHONE =
+            "insert into user_phone (user_id, number, city_code, country_code) values (:userId, :number, :cityCode, :countryCode)";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select 1 from app_user where email = :email limit 1")
+                .bind("email", email)
+                .map((row, metadata) -> Boolean.TRUE)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Inserts the user and its phones in one transaction. The user must already have an id.
+     */
+    public Mono<User> insert(User user) {
+        Mono<Void> insertUser = databaseClient.sql(INSERT_USER)
+                .bind("id", user.getId())
+                .bind("name", Parameter.fromOrEmpty(user.getName(), String.class))
+                .bind("email", user.getEmail())
+                .bind("password", Parameter.fromOrEmpty(user.getPassword(), String.class))
+                .bind("created", Parameter.fromOrEmpty(user.getCreated(), LocalDateTime.class))
+                .bind("modified", Parameter.fromOrEmpty(user.getModified(), LocalDateTime.class))
+                .bind("lastLogin", Parameter.fromOrEmpty(user.getLastLogin(), LocalDateTime.class))
+                .bind("token", Parameter.fromOrEmpty(user.getToken(), String.class))
+                .bind("isActive", Parameter.fromOrEmpty(user.getIsActive(), Boolean.class))
+                .then();
+
+        List<Phone> phones = user.getPhones() == null ? List.of() : user.getPhones();
+        Mono<Void> insertPhones = Flux.fromIterable(phones)
+                .concatMap(phone -> insertPhone(user, phone))
+                .then();
+
+        return insertUser
+                .then(insertPhones)
+                .thenReturn(user)
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Void> insertPhone(User user, Phone phone) {
+        return databaseClient.sql(INSERT_PHONE)
+                .bind("userId", user.getId())
+                .bind("number", Parameter.fromOrEmpty(phone.getNumber(), String.class))
+                .bind("cityCode", Parameter.fromOrEmpty(phone.getCityCode(), String.class))
+                .bind("countryCode", Parameter.fromOrEmpty(phone.getCountryCode(), String.class))
+                .then();
+    }
+}
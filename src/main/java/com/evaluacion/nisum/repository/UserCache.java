@@ -0,0 +1,73 @@
+package com.evaluacion.nisum.repository;
+
+import com.evaluacion.nisum.config.UserCacheProperties;
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Size-bounded Caffeine caches in front of {@link UserRepository} for the read API: users by id
+ * (without phones), ids by email, and phones by user id, so a lookup without phones never reads
+ * {@code user_phone}.
+ * <p>
+ * Misses are not cached. Entries are evicted by {@link UserCacheListener} whenever a user is
+ * written through JPA, and expire after {@code user-cache.expire-after-write} in any case.
+ * Hit, miss and eviction counts are published as {@code cache.*} meters tagged with the cache name.
+ */
+@Component
+@Profile("!reactive & !embedded")
+public class UserCache {
+
+    private final Cache<UUID, UserDetailResponse> users;
+    private final Cache<String, UUID> idsByEmail;
+    private final Cache<UUID, List<PhoneDto>> phones;
+
+    public UserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.users = CaffeineCacheMetrics.monitor(meterRegistry, newCache(properties), "users");
+        this.idsByEmail = CaffeineCacheMetrics.monitor(meterRegistry, newCache(properties), "user-ids-by-email");
+        this.phones = CaffeineCacheMetrics.monitor(meterRegistry, newCache(properties), "user-phones");
+    }
+
+    public Optional<UserDetailResponse> user(UUID id, Function<UUID, Optional<UserDetailResponse>> loader) {
+        return Optional.ofNullable(users.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Optional<UUID> idByEmail(String email, Function<String, Optional<UUID>> loader) {
+        return Optional.ofNullable(idsByEmail.get(email, key -> loader.apply(key).orElse(null)));
+    }
+
+    public List<PhoneDto> phones(UUID id, Function<UUID, List<PhoneDto>> loader) {
+        return phones.get(id, loader);
+    }
+
+    /**
+     * Drops everything cached for a user.
+     */
+    public void evict(UUID id, String email) {
+        if (id != null) {
+            users.invalidate(id);
+            phones.invalidate(id);
+        }
+        if (email != null) {
+            idsByEmail.invalidate(email);
+        }
+    }
+
+    private static <K, V> Cache<K, V> newCache(UserCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+}
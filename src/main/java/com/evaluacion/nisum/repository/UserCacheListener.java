@@ -0,0 +1,46 @@
+package com.evaluacion.nisum.repository;
+
+import com.evaluacion.nisum.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts a user from the {@link UserCache} whenever it is written through JPA, whichever path
+ * writes it.
+ * <p>
+ * The entry is evicted right away and again after commit: a read that runs while the transaction
+ * is still open can only see (and cache) the old row, and the second eviction removes it.
+ */
+@Component
+public class UserCacheListener {
+
+    private final ObjectProvider<UserCache> userCache;
+
+    public UserCacheListener(ObjectProvider<UserCache> userCache) {
+        this.userCache = userCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(User user) {
+        UserCache cache = userCache.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        cache.evict(user.getId(), user.getEmail());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(user.getId(), user.getEmail());
+                }
+            });
+        }
+    }
+}
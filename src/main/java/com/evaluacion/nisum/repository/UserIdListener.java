@@ -0,0 +1,28 @@
+package com.evaluacion.nisum.repository;
+
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.util.UserIdGenerator;
+import jakarta.persistence.PrePersist;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives users persisted without an id one from the configured {@link UserIdGenerator}. Instantiated
+ * by Hibernate through Spring's bean container; entity listeners run before the entity's own
+ * {@code @PrePersist}, whose random id is then only a fallback.
+ */
+@Component
+public class UserIdListener {
+
+    private final UserIdGenerator userIdGenerator;
+
+    public UserIdListener(UserIdGenerator userIdGenerator) {
+        this.userIdGenerator = userIdGenerator;
+    }
+
+    @PrePersist
+    public void assignId(User user) {
+        if (user.getId() == null) {
+            user.setId(userIdGenerator.next());
+        }
+    }
+}
@@ -1,13 +1,82 @@
 package com.evaluacion.nisum.repository;
 
+import com.evaluacion.nisum.model.Phone;
 import com.evaluacion.nisum.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
+
+    @EntityGraph(attributePaths = "phones")
+    Optional<User> findWithPhonesByEmail(String email);
+
+    @Query("select u.id from app_user u where u.email = :email")
+    Optional<UUID> findIdByEmail(@Param("email") String email);
+
+    @Query("select p from app_user u join u.phones p where u.id = :id")
+    List<Phone> findPhonesById(@Param("id") UUID id);
+
+    /**
+     * Tokens are not unique in the schema; ask for two ids to tell an ambiguous token apart.
+     */
+    @Query("select u.id from app_user u where u.token = :token")
+    List<UUID> findIdsByToken(@Param("token") String token, Pageable pageable);
+
+    boolean existsByEmail(String email);
+
+    @Query("select u.email from app_user u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.email from app_user u where u.email > :after order by u.email")
+    List<String> findEmailsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * The first users in id order; with {@link #findPageAfter} reads a table page by page by key.
+     */
+    @Query("select u from app_user u order by u.id")
+    List<User> findPage(Pageable pageable);
+
+    @Query("select u from app_user u where u.id > :after order by u.id")
+    List<User> findPageAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Every user in {@code (created, id)} order, read through a cursor. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from app_user u order by u.created, u.id")
+    Stream<User> streamAll();
+
+    /**
+     * Users after the given {@code (created, id)} position, in the same order as {@link #streamAll()}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select u from app_user u
+            where u.created > :created or (u.created = :created and u.id > :id)
+            order by u.created, u.id""")
+    Stream<User> streamAfter(@Param("created") LocalDateTime created, @Param("id") UUID id);
 }
@@ -0,0 +1,54 @@
+package com.evaluacion.nisum.repository;
+
+import com.evaluacion.nisum.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Persistence port used by registration: the few operations {@code DefaultUserService} and the
+ * write-behind queue need, so the store behind them can be JPA ({@link JpaUserStore}) or the
+ * embedded journal of the {@code embedded} profile.
+ * <p>
+ * Every implementation keeps emails unique: inserting a registered email throws a
+ * {@link org.springframework.dao.DataIntegrityViolationException}.
+ */
+public interface UserStore {
+
+    boolean existsByEmail(String email);
+
+    /**
+     * @return the given emails that are already registered
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    Optional<User> findById(UUID id);
+
+    long count();
+
+    /**
+     * Inserts a new user, assigning its id if it has none.
+     *
+     * @return the saved user
+     */
+    User save(User user);
+
+    /**
+     * Like {@link #save(User)}, but an email conflict is reported before returning even when the
+     * store would otherwise detect it later (JPA defers the insert to the flush). Stores that write
+     * through do not need to tell the two apart.
+     */
+    default User saveAndFlush(User user) {
+        return save(user);
+    }
+
+    /**
+     * Inserts all users or none of them.
+     *
+     * @return the saved users, with their ids
+     */
+    List<User> saveAll(List<User> users);
+}
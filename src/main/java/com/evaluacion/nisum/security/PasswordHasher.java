@@ -0,0 +1,44 @@
+package com.evaluacion.nisum.security;
+
+import java.time.Duration;
+
+/**
+ * One-way password hash. Implementations are immutable and thread-safe; the encoded form carries
+ * everything needed to verify it (algorithm, cost and salt), so hashes made with an older cost keep
+ * verifying after the cost changes.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Hashes a password with a fresh random salt.
+     *
+     * @param password the raw password
+     * @return the encoded hash
+     */
+    String hash(CharSequence password);
+
+    /**
+     * Checks a raw password against an encoded hash in constant time.
+     *
+     * @param password the raw password
+     * @param encoded  a value returned by {@link #hash(CharSequence)}
+     * @return whether the password matches
+     */
+    boolean matches(CharSequence password, String encoded);
+
+    /**
+     * @return the work factor, in the implementation's own unit
+     */
+    int cost();
+
+    /**
+     * @return the same algorithm with another work factor
+     */
+    PasswordHasher withCost(int cost);
+
+    /**
+     * Measures this machine and returns the same algorithm with the work factor that takes about
+     * {@code targetLatency} per hash.
+     */
+    PasswordHasher calibrated(Duration targetLatency);
+}
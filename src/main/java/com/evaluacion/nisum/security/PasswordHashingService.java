@@ -0,0 +1,245 @@
+package com.evaluacion.nisum.security;
+
+import com.evaluacion.nisum.config.PasswordHashingProperties;
+import com.evaluacion.nisum.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link PasswordHasher} on its own fixed pool, one thread per processor, so a costly
+ * hash never runs on a request thread and never competes with more hashes than there are cores.
+ * <p>
+ * The pool queue is bounded: when it is full the hash is refused straight away with a 503 instead
+ * of letting waiting time grow without limit, and a hash that has not started within
+ * {@code password-hashing.max-queue-wait} is dropped with a 503 as well. Batches go through
+ * {@link #hashAll(List)}, which keeps only one hash per pool thread in flight instead of flooding
+ * the queue. When {@code password-hashing.cost} is {@code 0} the cost is calibrated at startup to
+ * {@code password-hashing.target-latency}.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+    private final PasswordHasher hasher;
+    private final ThreadPoolExecutor executor;
+    private final int batchWindow;
+    private final long maxQueueWaitNanos;
+
+    private final Timer hashDuration;
+    private final Timer queueWait;
+    private final Counter rejections;
+    private final Counter timeouts;
+
+    public PasswordHashingService(PasswordHasher passwordHasher, PasswordHashingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        if (properties.getCost() > 0) {
+            this.hasher = passwordHasher.withCost(properties.getCost());
+        } else {
+            this.hasher = passwordHasher.calibrated(properties.getTargetLatency());
+            log.info("Costo de hash de contraseñas calibrado a {} para {} ms por hash",
+                    hasher.cost(), properties.getTargetLatency().toMillis());
+        }
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofPlatform().name("password-hasher-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxQueueWaitNanos = properties.getMaxQueueWait().toNanos();
+        // A finished hash submits the next one before its thread is free, so every hash of the
+        // window may need a queue slot at once.
+        this.batchWindow = Math.min(threads, properties.getQueueCapacity());
+
+        this.hashDuration = Timer.builder("password.hash.duration")
+                .description("Time spent computing one password hash")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("password.hash.queue.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejections = Counter.builder("password.hash.rejected")
+                .description("Hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("password.hash.queue.timeouts")
+                .description("Hashes dropped because they waited longer than the maximum queue wait")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hash.cost", hasher, PasswordHasher::cost)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a password on the hashing pool.
+     *
+     * @return the encoded hash, or a future failed with an {@link OverloadedException} if the
+     * hashing queue is full or the hash waited longer than the maximum queue wait
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        HashTask task = new HashTask(password, maxQueueWaitNanos);
+        return submit(task) ? task.result : CompletableFuture.failedFuture(new OverloadedException());
+    }
+
+    /**
+     * Hashes a batch of passwords through a sliding window of one hash per pool thread (capped by
+     * the queue capacity): the next hash is submitted when one completes, so a batch of any size
+     * takes at most that many queue slots and its hashes are not held to the maximum queue wait.
+     *
+     * @return one future per password, in order; an entry fails with an {@link OverloadedException}
+     * only if other traffic has filled the queue when its turn comes
+     */
+    public List<CompletableFuture<String>> hashAll(List<String> passwords) {
+        List<CompletableFuture<String>> results = new ArrayList<>(passwords.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        AtomicInteger next = new AtomicInteger();
+        for (int i = Math.min(batchWindow, passwords.size()); i > 0; i--) {
+            submitNext(passwords, results, next);
+        }
+        return results;
+    }
+
+    private void submitNext(List<String> passwords, List<CompletableFuture<String>> results, AtomicInteger next) {
+        int i;
+        while ((i = next.getAndIncrement()) < passwords.size()) {
+            HashTask task = new HashTask(passwords.get(i), Long.MAX_VALUE);
+            if (submit(task)) {
+                CompletableFuture<String> result = results.get(i);
+                task.result.whenComplete((hash, error) -> {
+                    if (error == null) {
+                        result.complete(hash);
+                    } else {
+                        result.completeExceptionally(error);
+                    }
+                    submitNext(passwords, results, next);
+                });
+                return;
+            }
+            results.get(i).completeExceptionally(new OverloadedException());
+        }
+    }
+
+    /**
+     * Hashes a password on the hashing pool and waits for the result. If the hash has not started
+     * within the maximum queue wait it is taken out of the queue, so the caller never waits behind
+     * the whole backlog.
+     *
+     * @throws OverloadedException if the hashing queue is full or the hash did not start in time
+     */
+    public String hash(String password) {
+        HashTask task = new HashTask(password, maxQueueWaitNanos);
+        if (!submit(task)) {
+            throw new OverloadedException();
+        }
+        try {
+            return task.result.get(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (task.abandon()) {
+                timeouts.increment();
+                throw new OverloadedException();
+            }
+            // Already running: it was picked up in time, so wait for it to finish
+            return join(task.result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.abandon();
+            throw new OverloadedException();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private boolean submit(HashTask task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            return false;
+        }
+    }
+
+    private static String join(CompletableFuture<String> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+
+    /**
+     * One queued hash. Whoever claims it first decides its fate: the pool thread runs it, or the
+     * waiting caller abandons it and frees its queue slot.
+     */
+    private final class HashTask implements Runnable {
+
+        private final String password;
+        private final long maxWaitNanos;
+        private final long queuedAt = System.nanoTime();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private HashTask(String password, long maxWaitNanos) {
+            this.password = password;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        boolean abandon() {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            executor.remove(this);
+            return true;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            queueWait.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+            if (startedAt - queuedAt > maxWaitNanos) {
+                timeouts.increment();
+                result.completeExceptionally(new OverloadedException());
+                return;
+            }
+            try {
+                String hash = hasher.hash(password);
+                hashDuration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                result.complete(hash);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
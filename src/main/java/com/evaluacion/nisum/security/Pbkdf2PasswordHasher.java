@@ -0,0 +1,110 @@
+package com.evaluacion.nisum.security;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * PBKDF2 with HMAC-SHA256 from the JDK. The cost is the iteration count, so hashing time grows
+ * linearly with it.
+ * <p>
+ * Encoded form: {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}, with salt and hash in unpadded
+ * base64.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    private static final String ID = "pbkdf2-sha256";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final int CALIBRATION_COST = 10_000;
+    private static final int CALIBRATION_ROUNDS = 5;
+    private static final int MIN_CALIBRATED_COST = 10_000;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final int iterations;
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String hash(CharSequence password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, HASH_BITS);
+        return ID + '$' + iterations + '$' + ENCODER.encodeToString(salt) + '$' + ENCODER.encodeToString(hash);
+    }
+
+    @Override
+    public boolean matches(CharSequence password, String encoded) {
+        String[] parts = encoded == null ? new String[0] : encoded.split("\\$");
+        if (parts.length != 4 || !ID.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = DECODER.decode(parts[2]);
+            byte[] expected = DECODER.decode(parts[3]);
+            if (storedIterations < 1 || expected.length == 0) {
+                return false;
+            }
+            byte[] actual = derive(password, salt, storedIterations, expected.length * 8);
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int cost() {
+        return iterations;
+    }
+
+    @Override
+    public PasswordHasher withCost(int cost) {
+        return new Pbkdf2PasswordHasher(cost);
+    }
+
+    @Override
+    public PasswordHasher calibrated(Duration targetLatency) {
+        PasswordHasher probe = withCost(CALIBRATION_COST);
+        long best = Long.MAX_VALUE;
+        // The first rounds also warm up the JIT; the fastest one is the least noisy estimate.
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.hash("calibración");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long cost = CALIBRATION_COST * targetLatency.toNanos() / Math.max(best, 1);
+        return withCost((int) Math.min(Math.max(cost, MIN_CALIBRATED_COST), Integer.MAX_VALUE));
+    }
+
+    private static byte[] derive(CharSequence password, byte[] salt, int iterations, int bits) {
+        char[] chars = new char[password.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = password.charAt(i);
+        }
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, bits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " no está disponible", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.evaluacion.nisum.security;
+
+import com.evaluacion.nisum.config.LoginProperties;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.sharding.ShardRouter;
+import com.evaluacion.nisum.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Verifies the tokens issued at registration and resolves the user they belong to.
+ * <p>
+ * Tokens that passed verification are kept in a size-bounded Caffeine cache for
+ * {@code login.token-cache-ttl}, so verifying the same token again skips the HMAC, the JSON parsing
+ * and the lookup by token. Tokens that fail are never cached. A cached token is still rejected once
+ * its own expiration has passed. Hits and misses are published as {@code cache.*} meters tagged
+ * {@code cache=verified-tokens}. When sharded, the lookup by token asks every shard in parallel.
+ * <p>
+ * Tokens carry a random {@code jti}, so each one belongs to a single user. A token found on more
+ * than one user (issued before the {@code jti}, to two users with the same name in the same
+ * second) is rejected rather than resolved to either of them.
+ */
+@Component
+@Profile("!reactive & !embedded")
+public class TokenVerifier {
+
+    private static final Pageable AMBIGUITY_CHECK = PageRequest.of(0, 2);
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final Cache<String, VerifiedToken> verified;
+
+    public TokenVerifier(JwtUtil jwtUtil, UserRepository userRepository, ShardRouter shardRouter,
+                         LoginProperties properties, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.verified = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getTokenCacheSize())
+                .expireAfterWrite(properties.getTokenCacheTtl())
+                .recordStats()
+                .<String, VerifiedToken>build(), "verified-tokens");
+    }
+
+    /**
+     * @return the verified token, or empty if it is invalid, expired or not issued to any user
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        VerifiedToken cached = verified.get(token, this::load);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (cached.isExpired()) {
+            verified.invalidate(token);
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    private VerifiedToken load(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        List<UUID> userIds = new ArrayList<>(2);
+        shardRouter.onEach(shard -> userRepository.findIdsByToken(token, AMBIGUITY_CHECK)).forEach(userIds::addAll);
+        if (userIds.size() != 1) {
+            return null;
+        }
+        return new VerifiedToken(userIds.get(0), claims.getSubject(), claims.getExpiration().toInstant());
+    }
+
+    /**
+     * A token whose signature checked out, with the user it was issued to.
+     */
+    public record VerifiedToken(UUID userId, String subject, Instant expiresAt) {
+
+        boolean isExpired() {
+            return !Instant.now().isBefore(expiresAt);
+        }
+    }
+}
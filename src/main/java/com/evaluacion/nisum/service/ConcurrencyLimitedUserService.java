@@ -0,0 +1,90 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.config.RegistrationProperties;
+import com.evaluacion.nisum.dto.BulkRegistrationResult;
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ConflictException;
+import com.evaluacion.nisum.exception.OverloadedException;
+import com.evaluacion.nisum.exception.ValidationException;
+import com.evaluacion.nisum.util.GradientConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Puts an adaptive concurrency limit in front of {@link DefaultUserService#registerUser}.
+ * <p>
+ * When the database stalls, latency rises and {@link GradientConcurrencyLimit} lowers the limit;
+ * requests over it are shed at once with an {@link OverloadedException} (503 and
+ * {@code Retry-After}) instead of piling up on request threads. Only successful registrations feed
+ * latency samples: validation errors and conflicts return early and would drag the estimate down, so
+ * they are ignored. Any other failure (a query timeout, no pool connection, an overloaded hashing
+ * queue) is the server giving out and counts as a drop that cuts the limit.
+ * <p>
+ * Meters: {@code registration.concurrency.limit}, {@code registration.concurrency.inflight} and
+ * {@code registration.concurrency.rejected}.
+ */
+@Service
+@Primary
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "registration.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitedUserService implements UserService {
+
+    private final DefaultUserService delegate;
+    private final GradientConcurrencyLimit limit;
+    private final Duration retryAfter;
+    private final Counter rejected;
+
+    public ConcurrencyLimitedUserService(DefaultUserService delegate, RegistrationProperties registrationProperties,
+                                         MeterRegistry meterRegistry) {
+        RegistrationProperties.ConcurrencyLimit properties = registrationProperties.getConcurrencyLimit();
+        this.delegate = delegate;
+        this.limit = new GradientConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit());
+        this.retryAfter = properties.getRetryAfter();
+
+        Gauge.builder("registration.concurrency.limit", limit, GradientConcurrencyLimit::limit)
+                .description("Registrations allowed in flight at once")
+                .register(meterRegistry);
+        Gauge.builder("registration.concurrency.inflight", limit, GradientConcurrencyLimit::inFlight)
+                .description("Registrations currently in flight")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("registration.concurrency.rejected")
+                .description("Registrations shed over the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserResponse registerUser(UserRequest userRequest) {
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            throw new OverloadedException(retryAfter);
+        }
+        long start = System.nanoTime();
+        UserResponse response;
+        try {
+            response = delegate.registerUser(userRequest);
+        } catch (ValidationException | ConflictException e) {
+            limit.releaseIgnored();
+            throw e;
+        } catch (Throwable e) {
+            limit.releaseDropped();
+            throw e;
+        }
+        limit.release(System.nanoTime() - start);
+        return response;
+    }
+
+    @Override
+    public List<BulkRegistrationResult> registerUsers(List<UserRequest> userRequests) {
+        return delegate.registerUsers(userRequests);
+    }
+}
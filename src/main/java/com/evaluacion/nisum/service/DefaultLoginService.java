@@ -0,0 +1,41 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.security.TokenVerifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Logs a user in with the token issued at registration. With the token and the user both cached,
+ * a login runs no query at all: the new {@code lastLogin} is handed to the {@link LastLoginRecorder}.
+ */
+@Service
+@Profile("!reactive & !embedded")
+@RequiredArgsConstructor
+public class DefaultLoginService implements LoginService {
+
+    private static final String INVALID_TOKEN = "Token inválido o expirado";
+
+    private final TokenVerifier tokenVerifier;
+    private final UserQueryService userQueryService;
+    private final LastLoginRecorder lastLoginRecorder;
+
+    @Override
+    public UserDetailResponse login(String token) {
+        TokenVerifier.VerifiedToken verified = tokenVerifier.verify(token)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, INVALID_TOKEN));
+        UserDetailResponse user = userQueryService.findById(verified.userId(), false)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, INVALID_TOKEN));
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "El usuario está inactivo");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lastLoginRecorder.record(user.getId(), user.getEmail(), now);
+        return user.toBuilder().lastLogin(now).build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.ReactiveUserRepository;
+import com.evaluacion.nisum.security.PasswordHashingService;
+import com.evaluacion.nisum.util.JwtUtil;
+import com.evaluacion.nisum.util.UserIdGenerator;
+import io.r2dbc.spi.R2dbcException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking registration for the {@code reactive} profile; same rules and responses as
+ * {@link DefaultUserService#registerUser}.
+ * <p>
+ * Validation and token minting are short, CPU-only steps (no I/O, no locks), so they run inline on
+ * the subscribing thread; the password hash runs on the {@link PasswordHashingService} pool and
+ * the database calls are asynchronous.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class DefaultReactiveUserService implements ReactiveUserService {
+
+    private static final String EMAIL_ALREADY_REGISTERED = "El correo ya está registrado";
+
+    private final ReactiveUserRepository userRepository;
+    private final ValidationService validationService;
+    private final JwtUtil jwtUtil;
+    private final PasswordHashingService passwordHashing;
+    private final UserIdGenerator userIdGenerator;
+
+    @Override
+    public Mono<UserResponse> registerUser(UserRequest userRequest) {
+        return Mono.fromCallable(() -> {
+                    validationService.validateEmail(userRequest.getEmail());
+                    validationService.validatePassword(userRequest.getPassword());
+                    return userRequest.getEmail();
+                })
+                .flatMap(userRepository::existsByEmail)
+                .flatMap(exists -> exists
+                        ? Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, EMAIL_ALREADY_REGISTERED))
+                        : Mono.fromFuture(() -> passwordHashing.hashAsync(userRequest.getPassword()))
+                                .flatMap(passwordHash -> userRepository.insert(newUser(userRequest, passwordHash))))
+                .onErrorMap(DefaultReactiveUserService::isUniqueViolation,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, EMAIL_ALREADY_REGISTERED))
+                .map(UserResponse::from);
+    }
+
+    private User newUser(UserRequest userRequest, String passwordHash) {
+        return User.builder()
+                .id(userIdGenerator.next())
+                .name(userRequest.getName())
+                .email(userRequest.getEmail())
+                .password(passwordHash)
+                .token(jwtUtil.generateToken(userRequest.getName()))
+                .phones(PhoneDto.toPhones(userRequest.getPhones()))
+                .build();
+    }
+
+    private static boolean isUniqueViolation(Throwable e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        if (!(e instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException r2dbcException && "23505".equals(r2dbcException.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
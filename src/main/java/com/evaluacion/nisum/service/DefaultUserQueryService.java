@@ -0,0 +1,66 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.repository.UserCache;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cached reads of registered users. Phones are read with their own query, and only when asked
+ * for, so a plain lookup is a single-row select (or no query at all on a cache hit).
+ * <p>
+ * When sharded, a lookup by email goes to the user's shard only; a lookup by id asks every shard
+ * in parallel.
+ */
+@Service
+@Profile("!reactive & !embedded")
+@RequiredArgsConstructor
+public class DefaultUserQueryService implements UserQueryService {
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ShardRouter shardRouter;
+
+    @Override
+    public Optional<UserDetailResponse> findById(UUID id, boolean includePhones) {
+        return find(id, includePhones, null);
+    }
+
+    @Override
+    public Optional<UserDetailResponse> findByEmail(String email, boolean includePhones) {
+        int shard = shardRouter.shardFor(email);
+        return userCache.idByEmail(email, key -> shardRouter.on(shard, () -> userRepository.findIdByEmail(key)))
+                .flatMap(id -> find(id, includePhones, shard));
+    }
+
+    /**
+     * @param shard where the user is, or {@code null} if unknown
+     */
+    private Optional<UserDetailResponse> find(UUID id, boolean includePhones, Integer shard) {
+        Optional<UserDetailResponse> user = userCache.user(id, key -> lookup(shard,
+                () -> userRepository.findById(key).map(UserDetailResponse::from)));
+        if (!includePhones) {
+            return user;
+        }
+        return user.map(found -> found.toBuilder().phones(userCache.phones(id, key -> loadPhones(key, shard))).build());
+    }
+
+    private List<PhoneDto> loadPhones(UUID id, Integer shard) {
+        return lookup(shard, () -> Optional.of(userRepository.findPhonesById(id)).filter(phones -> !phones.isEmpty()))
+                .map(PhoneDto::fromPhones)
+                .orElseGet(List::of);
+    }
+
+    private <T> Optional<T> lookup(Integer shard, Supplier<Optional<T>> query) {
+        return shard == null ? shardRouter.findFirst(any -> query.get()) : shardRouter.on(shard, query);
+    }
+}
@@ -1,49 +1,345 @@
 package com.evaluacion.nisum.service;
 
+import com.evaluacion.nisum.config.RegistrationProperties;
+import com.evaluacion.nisum.config.RegistrationProperties.Mode;
+import com.evaluacion.nisum.dto.BulkRegistrationResult;
+import com.evaluacion.nisum.dto.PhoneDto;
 import com.evaluacion.nisum.dto.UserRequest;
 import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ConflictException;
+import com.evaluacion.nisum.exception.OverloadedException;
+import com.evaluacion.nisum.exception.ValidationException;
+import com.evaluacion.nisum.metrics.RegistrationMetrics;
+import com.evaluacion.nisum.metrics.RegistrationMetrics.Phase;
 import com.evaluacion.nisum.model.User;
-import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.repository.EmailIndex;
+import com.evaluacion.nisum.repository.UserStore;
+import com.evaluacion.nisum.security.PasswordHashingService;
 import com.evaluacion.nisum.util.JwtUtil;
+import com.evaluacion.nisum.util.UserIdGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class DefaultUserService implements UserService {
 
-    private final UserRepository userRepository;
+    private static final String EMAIL_ALREADY_REGISTERED = ConflictException.EMAIL_ALREADY_REGISTERED.getMessage();
+
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    private final UserStore userStore;
     private final ValidationService validationService;
     private final JwtUtil jwtUtil;
+    private final PasswordHashingService passwordHashing;
+    private final RegistrationProperties registrationProperties;
+    private final RegistrationMetrics metrics;
+    private final UserIdGenerator userIdGenerator;
+
+    /**
+     * Absent with the {@code embedded} profile, whose store answers lookups from memory.
+     */
+    private final ObjectProvider<EmailIndex> emailIndex;
+
+    /**
+     * Present only with {@code registration.write-behind.enabled}.
+     */
+    private final ObjectProvider<UserWriteBehindQueue> writeBehindQueue;
 
     @Override
     public UserResponse registerUser(UserRequest userRequest) {
+        long phaseStart = System.nanoTime();
         validationService.validateEmail(userRequest.getEmail());
+        phaseStart = metrics.record(Phase.EMAIL_VALIDATION, phaseStart);
         validationService.validatePassword(userRequest.getPassword());
+        phaseStart = metrics.record(Phase.PASSWORD_VALIDATION, phaseStart);
+
+        UserWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+        if (queue != null) {
+            return registerWriteBehind(userRequest, queue, phaseStart);
+        }
 
-        if (userRepository.findByEmail(userRequest.getEmail()).isPresent()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "El correo ya está registrado");
+        boolean insertFirst = registrationProperties.getMode() == Mode.INSERT_FIRST;
+        if (!insertFirst) {
+            boolean registered = isRegistered(userRequest.getEmail());
+            phaseStart = metrics.record(Phase.DUPLICATE_CHECK, phaseStart);
+            if (registered) {
+                throw ConflictException.EMAIL_ALREADY_REGISTERED;
+            }
         }
 
+        String passwordHash = passwordHashing.hash(userRequest.getPassword());
+        phaseStart = metrics.record(Phase.PASSWORD_HASH, phaseStart);
+
+        String token = jwtUtil.generateToken(userRequest.getName());
+        phaseStart = metrics.record(Phase.TOKEN, phaseStart);
+
         User user = User.builder()
                 .name(userRequest.getName())
                 .email(userRequest.getEmail())
-                .password(userRequest.getPassword())
-                .token(jwtUtil.generateToken(userRequest.getName()))
-                .phones(userRequest.getPhones())
+                .password(passwordHash)
+                .token(token)
+                .phones(PhoneDto.toPhones(userRequest.getPhones()))
+                .build();
+
+        try {
+            if (insertFirst) {
+                userStore.saveAndFlush(user);
+            } else {
+                userStore.save(user);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Email is the only unique column a new user can collide on: either insert-first mode
+            // or a concurrent registration that passed the lookup at the same time.
+            if (isUniqueViolation(e)) {
+                throw ConflictException.EMAIL_ALREADY_REGISTERED;
+            }
+            throw e;
+        }
+        phaseStart = metrics.record(Phase.SAVE, phaseStart);
+
+        UserResponse userResponse = UserResponse.from(user);
+        metrics.record(Phase.RESPONSE_MAPPING, phaseStart);
+        metrics.outcome(HttpStatus.CREATED.value());
+        return userResponse;
+    }
+
+    /**
+     * Write-behind variant of {@link #registerUser}: the user is queued and persisted later by
+     * {@link UserWriteBehindQueue}, so the id is assigned here. Duplicates are always checked up
+     * front, whatever {@code registration.mode} says, because a conflict found by the writer can no
+     * longer be reported to the client.
+     */
+    private UserResponse registerWriteBehind(UserRequest userRequest, UserWriteBehindQueue queue, long phaseStart) {
+        String email = userRequest.getEmail();
+        // Reserve before looking the email up: a registration for it that is still queued keeps
+        // the reservation until committed, so one of the two checks always sees it.
+        if (!queue.reserve(email)) {
+            metrics.record(Phase.DUPLICATE_CHECK, phaseStart);
+            throw ConflictException.EMAIL_ALREADY_REGISTERED;
+        }
+        boolean queued = false;
+        try {
+            boolean registered = isRegistered(email);
+            phaseStart = metrics.record(Phase.DUPLICATE_CHECK, phaseStart);
+            if (registered) {
+                throw ConflictException.EMAIL_ALREADY_REGISTERED;
+            }
+
+            String passwordHash = passwordHashing.hash(userRequest.getPassword());
+            phaseStart = metrics.record(Phase.PASSWORD_HASH, phaseStart);
+
+            String token = jwtUtil.generateToken(userRequest.getName());
+            phaseStart = metrics.record(Phase.TOKEN, phaseStart);
+
+            User user = newUser(userRequest, passwordHash, token);
+            user.setId(userIdGenerator.next());
+            queued = queue.offer(user);
+            if (!queued) {
+                throw new OverloadedException();
+            }
+            phaseStart = metrics.record(Phase.SAVE, phaseStart);
+
+            UserResponse userResponse = UserResponse.from(user);
+            metrics.record(Phase.RESPONSE_MAPPING, phaseStart);
+            metrics.outcome(HttpStatus.CREATED.value());
+            return userResponse;
+        } finally {
+            if (!queued) {
+                queue.release(email);
+            }
+        }
+    }
+
+    /**
+     * Registers a batch of users. Every entry is validated up front, email conflicts are resolved
+     * with a single query for the emails the index cannot rule out, and the accepted users are inserted in chunks of
+     * {@code registration.batch.chunk-size}, one transaction per chunk.
+     */
+    @Override
+    public List<BulkRegistrationResult> registerUsers(List<UserRequest> userRequests) {
+        int maxEntries = registrationProperties.getBatch().getMaxEntries();
+        if (userRequests.size() > maxEntries) {
+            throw new ValidationException("El lote supera el máximo de " + maxEntries + " registros");
+        }
+
+        BulkRegistrationResult[] results = new BulkRegistrationResult[userRequests.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < userRequests.size(); i++) {
+            UserRequest userRequest = userRequests.get(i);
+            try {
+                validate(userRequest);
+            } catch (ValidationException e) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, e.getMessage());
+                continue;
+            }
+            if (candidates.putIfAbsent(userRequest.getEmail(), i) != null) {
+                results[i] = failure(i, HttpStatus.CONFLICT, EMAIL_ALREADY_REGISTERED);
+            }
+        }
+
+        EmailIndex index = emailIndex.getIfAvailable();
+        List<String> possiblyRegistered = index == null
+                ? List.copyOf(candidates.keySet())
+                : candidates.keySet().stream().filter(index::mightContain).toList();
+        Set<String> existingEmails = possiblyRegistered.isEmpty()
+                ? Set.of()
+                : userStore.findExistingEmails(possiblyRegistered);
+
+        List<Integer> indexes = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+            if (existingEmails.contains(candidate.getKey())) {
+                results[candidate.getValue()] = failure(candidate.getValue(), HttpStatus.CONFLICT, EMAIL_ALREADY_REGISTERED);
+            } else {
+                indexes.add(candidate.getValue());
+            }
+        }
+
+        int chunkSize = registrationProperties.getBatch().getChunkSize();
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            persistChunk(userRequests, indexes.subList(from, Math.min(from + chunkSize, indexes.size())), results);
+        }
+        // The response is a 200 either way; count each entry as the registration it stands for.
+        for (BulkRegistrationResult result : results) {
+            metrics.outcome(result.getStatus());
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Checks the email index first, when there is one, and only asks the store when the email might be registered.
+     */
+    private boolean isRegistered(String email) {
+        EmailIndex index = emailIndex.getIfAvailable();
+        if (index == null) {
+            return userStore.existsByEmail(email);
+        }
+        if (!index.mightContain(email)) {
+            return false;
+        }
+        boolean exists = userStore.existsByEmail(email);
+        index.recordConfirmation(exists);
+        return exists;
+    }
+
+    private static boolean isUniqueViolation(Throwable e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void persistChunk(List<UserRequest> userRequests, List<Integer> indexes, BulkRegistrationResult[] results) {
+        // Hash the chunk through the hashing pool's batch window; entries it cannot take are
+        // reported as 503 and left out of the chunk.
+        List<String> passwords = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            passwords.add(userRequests.get(index).getPassword());
+        }
+        List<CompletableFuture<String>> hashes = passwordHashing.hashAll(passwords);
+        List<Integer> accepted = new ArrayList<>(indexes.size());
+        List<User> users = new ArrayList<>(indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            try {
+                users.add(newUser(userRequests.get(index), hashes.get(i).join()));
+                accepted.add(index);
+            } catch (CompletionException e) {
+                results[index] = e.getCause() instanceof ResponseStatusException rejection
+                        ? failure(index, HttpStatus.valueOf(rejection.getStatusCode().value()), rejection.getReason())
+                        : failure(index, HttpStatus.INTERNAL_SERVER_ERROR, "Error inesperado: " + e.getCause().getMessage());
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            userStore.saveAll(users);
+            for (int i = 0; i < accepted.size(); i++) {
+                results[accepted.get(i)] = success(accepted.get(i), users.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took one of the emails after the lookup; retry the chunk
+            // entry by entry so only the conflicting ones are reported.
+            for (int i = 0; i < accepted.size(); i++) {
+                int index = accepted.get(i);
+                results[index] = persistOne(index, userRequests.get(index), users.get(i).getPassword());
+            }
+        }
+    }
+
+    private BulkRegistrationResult persistOne(int index, UserRequest userRequest, String passwordHash) {
+        try {
+            return success(index, userStore.save(newUser(userRequest, passwordHash)));
+        } catch (DataIntegrityViolationException e) {
+            return failure(index, HttpStatus.CONFLICT, EMAIL_ALREADY_REGISTERED);
+        } catch (RuntimeException e) {
+            return failure(index, HttpStatus.INTERNAL_SERVER_ERROR, "Error inesperado: " + e.getMessage());
+        }
+    }
+
+    private void validate(UserRequest userRequest) {
+        if (userRequest == null) {
+            throw ValidationException.INVALID_EMAIL;
+        }
+        validationService.validateEmail(userRequest.getEmail());
+        validationService.validatePassword(userRequest.getPassword());
+    }
+
+    /**
+     * Builds a new user for the batch and write-behind paths. The phone list is copied so the
+     * user never shares it with the request.
+     */
+    private User newUser(UserRequest userRequest, String passwordHash) {
+        return newUser(userRequest, passwordHash, jwtUtil.generateToken(userRequest.getName()));
+    }
+
+    private static User newUser(UserRequest userRequest, String passwordHash, String token) {
+        return User.builder()
+                .name(userRequest.getName())
+                .email(userRequest.getEmail())
+                .password(passwordHash)
+                .token(token)
+                .phones(PhoneDto.toPhones(userRequest.getPhones()))
                 .build();
+    }
 
-        userRepository.save(user);
+    private static BulkRegistrationResult success(int index, User user) {
+        return BulkRegistrationResult.builder()
+                .index(index)
+                .status(HttpStatus.CREATED.value())
+                .user(UserResponse.from(user))
+                .build();
+    }
 
-        return UserResponse.builder()
-                .id(user.getId())
-                .token(user.getToken())
-                .created(user.getCreated())
-                .modified(user.getModified())
-                .lastLogin(user.getLastLogin())
-                .isActive(user.getIsActive())
+    private static BulkRegistrationResult failure(int index, HttpStatus status, String message) {
+        return BulkRegistrationResult.builder()
+                .index(index)
+                .status(status.value())
+                .mensaje(message)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -1,31 +1,86 @@
 package com.evaluacion.nisum.service;
 
+import com.evaluacion.nisum.config.ValidationProperties;
+import com.evaluacion.nisum.config.ValidationProperties.Mode;
 import com.evaluacion.nisum.exception.ValidationException;
-import org.springframework.beans.factory.annotation.Value;
+import com.evaluacion.nisum.util.EmailScanner;
+import com.evaluacion.nisum.util.PasswordScanner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class DefaultValidationService implements ValidationService {
 
-    @Value("${validation.email.regex}")
-    private String emailRegex;
+    private final ValidationProperties properties;
 
-    @Value("${validation.password.regex}")
-    private String passwordRegex;
+    private volatile CompiledRule emailRule = CompiledRule.NONE;
+
+    private volatile CompiledRule passwordRule = CompiledRule.NONE;
 
     @Override
     public void validateEmail(String email) {
-        if (!Pattern.matches(emailRegex, email)) {
-            throw new ValidationException("Formato de correo inválido");
+        if (email == null || !emailRule().matches(email)) {
+            throw ValidationException.INVALID_EMAIL;
         }
     }
 
     @Override
     public void validatePassword(String password) {
-        if (!Pattern.matches(passwordRegex, password)) {
-            throw new ValidationException("La contraseña no cumple con los requisitos");
+        if (password == null || !passwordRule().matches(password)) {
+            throw ValidationException.INVALID_PASSWORD;
+        }
+    }
+
+    private CompiledRule emailRule() {
+        CompiledRule rule = emailRule;
+        String regex = properties.getEmail().getRegex();
+        if (!rule.isCompiledFrom(regex, properties.getMode())) {
+            rule = CompiledRule.compile(regex, properties.getMode(), EmailScanner.REGEX, EmailScanner::matches);
+            emailRule = rule;
+        }
+        return rule;
+    }
+
+    private CompiledRule passwordRule() {
+        CompiledRule rule = passwordRule;
+        String regex = properties.getPassword().getRegex();
+        if (!rule.isCompiledFrom(regex, properties.getMode())) {
+            rule = CompiledRule.compile(regex, properties.getMode(), PasswordScanner.REGEX, PasswordScanner::matches);
+            passwordRule = rule;
+        }
+        return rule;
+    }
+
+    /**
+     * A rule compiled once per configured regex and mode; recompiled only when either changes.
+     */
+    private record CompiledRule(String regex, Mode mode, Pattern pattern, Predicate<CharSequence> scanner) {
+
+        static final CompiledRule NONE = new CompiledRule(null, null, null, null);
+
+        static CompiledRule compile(String regex, Mode mode, String scannerRegex, Predicate<CharSequence> scanner) {
+            Pattern pattern = Pattern.compile(regex);
+            if (mode == Mode.SCANNER) {
+                if (scannerRegex.equals(regex)) {
+                    return new CompiledRule(regex, mode, pattern, scanner);
+                }
+                log.warn("No scanner available for regex '{}', falling back to java.util.regex", regex);
+            }
+            return new CompiledRule(regex, mode, pattern, null);
+        }
+
+        boolean isCompiledFrom(String currentRegex, Mode currentMode) {
+            return mode == currentMode && regex != null && regex.equals(currentRegex);
+        }
+
+        boolean matches(String input) {
+            return scanner != null ? scanner.test(input) : pattern.matcher(input).matches();
         }
     }
 }
@@ -0,0 +1,221 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.config.IdempotencyProperties;
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ConflictException;
+import com.evaluacion.nisum.exception.ValidationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Outcomes of {@code POST /registro} by {@code Idempotency-Key}, so a client retrying after a timeout
+ * gets the original answer instead of registering twice or getting a 409.
+ * <p>
+ * Requests with a key already in flight wait for that execution and share its outcome
+ * (single-flight). Successful and 4xx outcomes other than 400 are then kept in a Caffeine cache
+ * bounded by their estimated size ({@code idempotency.maximum-size}) and expiring after
+ * {@code idempotency.ttl}; 5xx outcomes are not kept, so a retry after an overload or a failure
+ * runs again. A key reused
+ * with a different request body is rejected with 422.
+ * <p>
+ * Hits, misses and evictions are published as {@code cache.*} meters tagged {@code cache=idempotency},
+ * requests that joined one in flight as {@code idempotency.collapsed}.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyCache {
+
+    /**
+     * Rough heap taken by an entry apart from its strings: the entry, the outcome, the response
+     * and its dates, id and fingerprint.
+     */
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final Cache<String, Outcome> outcomes;
+    private final Map<String, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+    private final int maxKeyLength;
+    private final Counter collapsed;
+
+    /**
+     * Mixed into every fingerprint so the stored digests cannot be matched against guessed passwords.
+     */
+    private final byte[] fingerprintSalt = new byte[16];
+
+    public IdempotencyCache(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.maxKeyLength = properties.getMaxKeyLength();
+        this.outcomes = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String key, Outcome outcome) -> outcome.weight(key))
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .<String, Outcome>build(), "idempotency");
+        this.collapsed = Counter.builder("idempotency.collapsed")
+                .description("Requests that waited for one with the same Idempotency-Key instead of running")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.in-flight", inFlight, Map::size)
+                .description("Idempotency keys whose first request is still running")
+                .register(meterRegistry);
+        new SecureRandom().nextBytes(fingerprintSalt);
+    }
+
+    /**
+     * Runs the registration once per key and replays its outcome for the same key afterwards.
+     *
+     * @return the response, and whether it was produced by an earlier request
+     * @throws RuntimeException the original error, or a 422 {@link ResponseStatusException} if the
+     *                          key came with another body
+     */
+    public Result execute(String key, UserRequest userRequest, Supplier<UserResponse> registration) {
+        if (key.isBlank() || key.length() > maxKeyLength) {
+            throw new ValidationException("La clave de idempotencia debe tener entre 1 y " + maxKeyLength + " caracteres");
+        }
+        byte[] fingerprint = fingerprint(userRequest);
+        Outcome cached = outcomes.getIfPresent(key);
+        if (cached != null) {
+            return cached.replay(fingerprint);
+        }
+        CompletableFuture<Outcome> mine = new CompletableFuture<>();
+        CompletableFuture<Outcome> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            collapsed.increment();
+            return running.join().replay(fingerprint);
+        }
+        try {
+            // The first request may have finished between the lookup and the reservation.
+            Outcome outcome = outcomes.asMap().get(key);
+            if (outcome != null) {
+                mine.complete(outcome);
+                return outcome.replay(fingerprint);
+            }
+            outcome = run(fingerprint, registration);
+            if (outcome.isCacheable()) {
+                outcomes.put(key, outcome.withoutFailure());
+            }
+            mine.complete(outcome);
+            return outcome.result(false);
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Outcome run(byte[] fingerprint, Supplier<UserResponse> registration) {
+        try {
+            return new Outcome(fingerprint, registration.get(), null, null, null);
+        } catch (ValidationException e) {
+            return new Outcome(fingerprint, null, HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (ConflictException e) {
+            return new Outcome(fingerprint, null, HttpStatus.CONFLICT, e.getMessage(), e);
+        } catch (ResponseStatusException e) {
+            return new Outcome(fingerprint, null, e.getStatusCode(), e.getReason(), e);
+        } catch (RuntimeException e) {
+            return new Outcome(fingerprint, null, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
+        }
+    }
+
+    private byte[] fingerprint(UserRequest userRequest) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+        digest.update(fingerprintSalt);
+        update(digest, userRequest.getName());
+        update(digest, userRequest.getEmail());
+        update(digest, userRequest.getPassword());
+        if (userRequest.getPhones() != null) {
+            for (PhoneDto phone : userRequest.getPhones()) {
+                update(digest, phone.getNumber());
+                update(digest, phone.getCityCode());
+                update(digest, phone.getCountryCode());
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Writes the value with its length, so adjacent fields cannot run into each other.
+     */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0xFF);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(new byte[]{(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                (byte) (bytes.length >>> 8), (byte) bytes.length});
+        digest.update(bytes);
+    }
+
+    /**
+     * A response to send, and whether it is a replay of an earlier request's.
+     */
+    public record Result(UserResponse response, boolean replayed) {
+    }
+
+    /**
+     * What a request produced: a response, or the status and message of its error. The exception
+     * itself is only kept for the requests that joined it in flight, which rethrow it as is.
+     */
+    private record Outcome(byte[] fingerprint, UserResponse response, HttpStatusCode status, String message,
+                           RuntimeException failure) {
+
+        /**
+         * 400s are left out too: validation depends only on the body, so running it again is
+         * cheaper than letting invalid payloads with fresh keys push real outcomes out.
+         */
+        boolean isCacheable() {
+            return response != null || (status.is4xxClientError() && status.value() != HttpStatus.BAD_REQUEST.value());
+        }
+
+        Outcome withoutFailure() {
+            return failure == null ? this : new Outcome(fingerprint, response, status, message, null);
+        }
+
+        Result replay(byte[] requestFingerprint) {
+            if (!MessageDigest.isEqual(fingerprint, requestFingerprint)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "La clave de idempotencia ya se usó con otra solicitud");
+            }
+            return result(true);
+        }
+
+        Result result(boolean replayed) {
+            if (response != null) {
+                return new Result(response, replayed);
+            }
+            throw failure != null ? failure : new ResponseStatusException(status, message);
+        }
+
+        int weight(String key) {
+            int chars = key.length() + (message == null ? 0 : message.length())
+                    + (response == null || response.getToken() == null ? 0 : response.getToken().length());
+            return ENTRY_OVERHEAD + 2 * chars;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.config.LoginProperties;
+import com.evaluacion.nisum.repository.UserCache;
+import com.evaluacion.nisum.sharding.ShardRouter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces {@code lastLogin} updates in memory and writes them periodically as one batched
+ * {@code UPDATE}, instead of one statement per login.
+ * <p>
+ * Only the latest login of each user is kept, so a user logging in many times between two flushes
+ * costs a single row update. The update goes straight through JDBC: it does not touch
+ * {@code modified} and never overwrites a newer {@code lastLogin}. Flushed users are evicted from the
+ * {@link UserCache} so the read API sees the new value. When sharded, each shard gets its own batch.
+ * <p>
+ * Pending updates live only in memory: at most {@code login.flush-interval} worth of logins is lost
+ * if the process dies abruptly. A normal shutdown flushes them.
+ */
+@Slf4j
+@Component
+@Profile("!reactive & !embedded")
+public class LastLoginRecorder implements SmartLifecycle {
+
+    private static final String UPDATE_SQL =
+            "update app_user set last_login = ? where id = ? and (last_login is null or last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCache userCache;
+    private final ShardRouter shardRouter;
+    private final Duration flushInterval;
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+
+    private final Timer flushLag;
+    private final DistributionSummary flushSize;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate, UserCache userCache, ShardRouter shardRouter,
+                             LoginProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userCache = userCache;
+        this.shardRouter = shardRouter;
+        this.flushInterval = properties.getFlushInterval();
+
+        Gauge.builder("login.last-login.pending", pending, Map::size)
+                .description("Users with a login not yet written to the database")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("login.last-login.flush.lag")
+                .description("Time from a login until its lastLogin is written")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("login.last-login.flush.size")
+                .description("Users updated per lastLogin flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a login to be written on the next flush.
+     *
+     * @param email routes the update to the user's shard
+     */
+    public void record(UUID userId, String email, LocalDateTime loggedInAt) {
+        pending.merge(userId, new Pending(loggedInAt, System.nanoTime(), shardRouter.shardFor(email)), Pending::merge);
+    }
+
+    /**
+     * Writes every pending login. Runs every {@code login.flush-interval} and on shutdown.
+     */
+    public void flush() {
+        List<Map.Entry<UUID, Pending>> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, Pending> entry : pending.entrySet()) {
+            // A login recorded meanwhile replaced the value; it stays for the next flush.
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Map.Entry<UUID, Pending>>> byShard = new TreeMap<>();
+        for (Map.Entry<UUID, Pending> entry : batch) {
+            byShard.computeIfAbsent(entry.getValue().shard(), shard -> new ArrayList<>()).add(entry);
+        }
+        long written = 0;
+        for (Map.Entry<Integer, List<Map.Entry<UUID, Pending>>> shard : byShard.entrySet()) {
+            if (write(shard.getKey(), shard.getValue())) {
+                written += shard.getValue().size();
+            }
+        }
+        if (written > 0) {
+            flushSize.record(written);
+        }
+    }
+
+    private boolean write(int shard, List<Map.Entry<UUID, Pending>> batch) {
+        List<Object[]> arguments = new ArrayList<>(batch.size());
+        for (Map.Entry<UUID, Pending> entry : batch) {
+            Timestamp loggedInAt = Timestamp.valueOf(entry.getValue().loggedInAt());
+            arguments.add(new Object[]{loggedInAt, entry.getKey(), loggedInAt});
+        }
+        try {
+            shardRouter.on(shard, () -> jdbcTemplate.batchUpdate(UPDATE_SQL, arguments));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("No se pudo guardar el último acceso de {} usuarios; se reintentará", batch.size(), e);
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Pending::merge));
+            return false;
+        }
+        long now = System.nanoTime();
+        for (Map.Entry<UUID, Pending> entry : batch) {
+            userCache.evict(entry.getKey(), null);
+            flushLag.record(now - entry.getValue().since(), TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("last-login-flusher").daemon().factory());
+        executor.scheduleWithFixedDelay(this::flushSafely, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(flushInterval.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Below the web server lifecycles, so the last flush runs after the server stops taking logins.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Error al guardar el último acceso de los usuarios", e);
+        }
+    }
+
+    /**
+     * Latest login of a user, when the oldest login still unwritten was recorded, and the user's shard.
+     */
+    private record Pending(LocalDateTime loggedInAt, long since, int shard) {
+
+        Pending merge(Pending newer) {
+            LocalDateTime latest = newer.loggedInAt().isAfter(loggedInAt) ? newer.loggedInAt() : loggedInAt;
+            return new Pending(latest, Math.min(since, newer.since()), shard);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+
+public interface LoginService {
+
+    UserDetailResponse login(String token);
+}
@@ -0,0 +1,9 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserService {
+    Mono<UserResponse> registerUser(UserRequest userRequest);
+}
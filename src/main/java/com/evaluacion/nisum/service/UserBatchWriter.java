@@ -0,0 +1,37 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Persists users in chunks, one transaction per chunk, so Hibernate can group the inserts into
+ * JDBC batches ({@code hibernate.jdbc.batch_size}).
+ */
+@Component
+@Profile("!reactive & !embedded")
+public class UserBatchWriter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserBatchWriter(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Saves all users in a single transaction.
+     *
+     * @param users the users to insert
+     * @return the saved users, with their generated ids
+     */
+    public List<User> saveChunk(List<User> users) {
+        return transactionTemplate.execute(status -> userRepository.saveAll(users));
+    }
+}
@@ -0,0 +1,327 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.model.Phone;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Writes every registered user, with its phones, as NDJSON: one JSON object per line, in
+ * {@code (created, id)} order.
+ * <p>
+ * Rows are read through a database cursor and written straight to the output with Jackson's
+ * streaming generator. Users are handled in chunks of {@value #CHUNK_SIZE}: the phones of a chunk
+ * are loaded with one query ({@code @BatchSize} on {@link User#getPhones()}) and the persistence
+ * context is cleared afterwards, so memory use does not depend on how many users there are.
+ * <p>
+ * When sharded, every shard is read in parallel by its own thread, at most {@value #READ_AHEAD}
+ * chunks ahead, and the sorted streams are merged as they are written.
+ */
+@Slf4j
+@Service
+@Profile("!reactive & !embedded")
+public class UserExportService implements DisposableBean {
+
+    /**
+     * Same as the {@code @BatchSize} of {@code User.phones}, so each chunk loads its phones at once.
+     */
+    static final int CHUNK_SIZE = 100;
+
+    private static final int READ_AHEAD = 4;
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * The order of the export queries; ids compare unsigned, as the database sorts them.
+     */
+    private static final Comparator<User> EXPORT_ORDER = Comparator
+            .comparing(User::getCreated, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(User::getId, (a, b) -> a.getMostSignificantBits() != b.getMostSignificantBits()
+                    ? Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits())
+                    : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits()));
+
+    private static final List<User> END = List.of();
+
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService shardReaders;
+    private final Counter exportedRows;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserExportService(UserRepository userRepository, ShardRouter shardRouter, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.shardReaders = shardRouter.isSharded()
+                ? Executors.newCachedThreadPool(Thread.ofPlatform().name("user-export-shard-", 0).daemon().factory())
+                : null;
+        this.exportedRows = Counter.builder("users.export.rows")
+                .description("Users written by GET /usuarios/export")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes the users after the given position, or all of them when it is {@code null}.
+     *
+     * @param after  the {@code created}/{@code id} of the last user already received, to resume an
+     *               interrupted export
+     * @param output where the NDJSON is written; not closed
+     * @return the number of users written
+     */
+    public long export(Cursor after, OutputStream output) throws IOException {
+        long started = System.nanoTime();
+        long rows = shardRouter.isSharded() ? exportMerged(after, output) : exportSingle(after, output);
+        double seconds = Math.max(System.nanoTime() - started, 1) / 1e9;
+        log.info("Exportados {} usuarios en {} ms ({} filas/s)", rows, Math.round(seconds * 1000), Math.round(rows / seconds));
+        return rows;
+    }
+
+    @Override
+    public void destroy() {
+        if (shardReaders != null) {
+            shardReaders.shutdownNow();
+        }
+    }
+
+    private long exportSingle(Cursor after, OutputStream output) throws IOException {
+        try {
+            return readOnlyTransaction.execute(status -> {
+                try {
+                    return writeAll(after, output);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeAll(Cursor after, OutputStream output) throws IOException {
+        long rows = 0;
+        try (Stream<User> users = stream(after);
+             JsonGenerator generator = newGenerator(output)) {
+            List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    for (User user : chunk) {
+                        write(user, generator);
+                    }
+                    rows += chunk.size();
+                    exportedRows.increment(chunk.size());
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long exportMerged(Cursor after, OutputStream output) throws IOException {
+        List<ShardReader> readers = new ArrayList<>(shardRouter.shardCount());
+        List<Future<?>> reading = new ArrayList<>(shardRouter.shardCount());
+        try {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                ShardReader reader = new ShardReader(shard, after);
+                readers.add(reader);
+                reading.add(shardReaders.submit(reader::read));
+            }
+            PriorityQueue<ShardReader> heads = new PriorityQueue<>(Comparator.comparing(ShardReader::head, EXPORT_ORDER));
+            for (ShardReader reader : readers) {
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+            long rows = 0;
+            try (JsonGenerator generator = newGenerator(output)) {
+                while (!heads.isEmpty()) {
+                    ShardReader reader = heads.poll();
+                    write(reader.head(), generator);
+                    if (++rows % CHUNK_SIZE == 0) {
+                        exportedRows.increment(CHUNK_SIZE);
+                    }
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                }
+            }
+            exportedRows.increment(rows % CHUNK_SIZE);
+            return rows;
+        } finally {
+            // Stops the readers still running when the client went away or a shard failed.
+            reading.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Stream<User> stream(Cursor after) {
+        return after == null ? userRepository.streamAll() : userRepository.streamAfter(after.created(), after.id());
+    }
+
+    private JsonGenerator newGenerator(OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are terminated explicitly; Jackson would otherwise put a space between objects.
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private static void write(User user, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", user.getId().toString());
+        generator.writeStringField("name", user.getName());
+        generator.writeStringField("email", user.getEmail());
+        writeDateTime(generator, "created", user.getCreated());
+        writeDateTime(generator, "modified", user.getModified());
+        writeDateTime(generator, "lastLogin", user.getLastLogin());
+        if (user.getIsActive() != null) {
+            generator.writeBooleanField("isActive", user.getIsActive());
+        }
+        generator.writeArrayFieldStart("phones");
+        for (Phone phone : user.getPhones()) {
+            generator.writeStartObject();
+            generator.writeStringField("number", phone.getNumber());
+            generator.writeStringField("citycode", phone.getCityCode());
+            generator.writeStringField("contrycode", phone.getCountryCode());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeDateTime(JsonGenerator generator, String field, LocalDateTime value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, DATE_TIME.format(value));
+        }
+    }
+
+    /**
+     * Reads one shard in export order on its own thread and hands the users over in chunks, with
+     * their phones loaded and detached from the persistence context.
+     */
+    private final class ShardReader {
+
+        private final int shard;
+        private final Cursor after;
+        private final BlockingQueue<List<User>> chunks = new ArrayBlockingQueue<>(READ_AHEAD);
+        private volatile RuntimeException failure;
+        private List<User> chunk = END;
+        private int position = -1;
+
+        ShardReader(int shard, Cursor after) {
+            this.shard = shard;
+            this.after = after;
+        }
+
+        void read() {
+            try {
+                shardRouter.on(shard, () -> {
+                    try (Stream<User> users = stream(after)) {
+                        List<User> next = new ArrayList<>(CHUNK_SIZE);
+                        Iterator<User> iterator = users.iterator();
+                        while (iterator.hasNext()) {
+                            next.add(iterator.next());
+                            if (next.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                                next.forEach(user -> Hibernate.initialize(user.getPhones()));
+                                entityManager.clear();
+                                hand(next);
+                                next = new ArrayList<>(CHUNK_SIZE);
+                            }
+                        }
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            hand(END);
+        }
+
+        /**
+         * Moves to the next user, waiting for the shard if its next chunk is not read yet.
+         *
+         * @return {@code false} once the shard has no more users
+         */
+        boolean advance() throws IOException {
+            if (++position < chunk.size()) {
+                return true;
+            }
+            try {
+                chunk = chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Exportación interrumpida");
+            }
+            position = 0;
+            if (chunk == END) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return false;
+            }
+            return true;
+        }
+
+        User head() {
+            return chunk.get(position);
+        }
+
+        private void hand(List<User> next) {
+            try {
+                chunks.put(next);
+            } catch (InterruptedException e) {
+                // The export was abandoned; leaving the transaction rolls it back and closes the cursor.
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Exportación del fragmento " + shard + " cancelada");
+            }
+        }
+    }
+
+    /**
+     * Position of a user in the export order.
+     */
+    public record Cursor(LocalDateTime created, UUID id) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserQueryService {
+
+    Optional<UserDetailResponse> findById(UUID id, boolean includePhones);
+
+    Optional<UserDetailResponse> findByEmail(String email, boolean includePhones);
+}
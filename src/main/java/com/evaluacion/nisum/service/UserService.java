@@ -1,8 +1,13 @@
 package com.evaluacion.nisum.service;
 
+import com.evaluacion.nisum.dto.BulkRegistrationResult;
 import com.evaluacion.nisum.dto.UserRequest;
 import com.evaluacion.nisum.dto.UserResponse;
 
+import java.util.List;
+
 public interface UserService {
     UserResponse registerUser(UserRequest userRequest);
+
+    List<BulkRegistrationResult> registerUsers(List<UserRequest> userRequests);
 }
@@ -0,0 +1,263 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.config.RegistrationProperties;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue of accepted users that a single writer thread persists in batches through
+ * {@link UserStore#saveAll(List)}, so registration requests do not wait for the commit.
+ * <p>
+ * Durability window: a user is acknowledged with 201 as soon as it is queued. Until its batch
+ * commits it lives only in memory and is lost if the process dies abruptly; at most
+ * {@code registration.write-behind.queue-capacity} users plus the batch being written are at risk.
+ * A normal shutdown stops taking new users and drains the queue for up to
+ * {@code registration.write-behind.drain-timeout}; users still unwritten when it runs out are lost
+ * too.
+ * <p>
+ * A write that fails for a transient reason (no pool connection, the database restarting, a lock
+ * timeout) is retried with exponential backoff from {@code registration.write-behind.retry-backoff}
+ * up to {@code registration.write-behind.max-retry-backoff}; meanwhile the queue fills and new
+ * registrations get a 503. A user is only given up when the store rejects it with a
+ * {@link DataIntegrityViolationException}.
+ * <p>
+ * Emails stay reserved from {@link #reserve(String)} until their user is written or given up, so a duplicate
+ * that arrives while the first registration is still queued is rejected as well.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "registration.write-behind", name = "enabled", havingValue = "true")
+public class UserWriteBehindQueue implements SmartLifecycle {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final UserStore userStore;
+    private final BlockingQueue<User> queue;
+    private final Set<String> pendingEmails = ConcurrentHashMap.newKeySet();
+    private final int maxBatchSize;
+    private final Duration drainTimeout;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+
+    private final DistributionSummary flushSize;
+    private final Counter retriedUsers;
+    private final Counter lostUsers;
+
+    private volatile boolean accepting;
+    private volatile Thread writer;
+
+    public UserWriteBehindQueue(UserStore userStore, RegistrationProperties registrationProperties,
+                                MeterRegistry meterRegistry) {
+        RegistrationProperties.WriteBehind properties = registrationProperties.getWriteBehind();
+        this.userStore = userStore;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.drainTimeout = properties.getDrainTimeout();
+        this.retryBackoffMillis = properties.getRetryBackoff().toMillis();
+        this.maxRetryBackoffMillis = properties.getMaxRetryBackoff().toMillis();
+
+        Gauge.builder("registration.write.queue.depth", queue, BlockingQueue::size)
+                .description("Users accepted and waiting to be persisted")
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("registration.write.flush.size")
+                .description("Users persisted per write-behind transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.retriedUsers = Counter.builder("registration.write.retries")
+                .description("Acknowledged users written again after a transient store failure")
+                .register(meterRegistry);
+        this.lostUsers = Counter.builder("registration.write.failures")
+                .description("Acknowledged users that could not be persisted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves an email for a registration about to be queued.
+     *
+     * @return {@code false} if another registration for the same email is still pending
+     */
+    public boolean reserve(String email) {
+        return pendingEmails.add(email);
+    }
+
+    /**
+     * Gives back a reservation whose user was not queued.
+     */
+    public void release(String email) {
+        pendingEmails.remove(email);
+    }
+
+    /**
+     * Hands a user over to the writer. The email must have been {@link #reserve(String) reserved}.
+     *
+     * @return {@code false} if the queue is full or shutting down; the caller should release the
+     * reservation and reject the request
+     */
+    public boolean offer(User user) {
+        return accepting && queue.offer(user);
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        writer = Thread.ofPlatform().name("registration-writer").start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(drainTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("La cola de registros no terminó de vaciarse; quedan {} usuarios sin persistir", queue.size());
+            thread.interrupt();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    /**
+     * Below the web server lifecycles, so the queue starts before requests are served and stops
+     * only after the server has stopped taking them.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<User> batch = new ArrayList<>(maxBatchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                User first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch, retrying users that failed for a transient reason until they are written
+     * or given up.
+     */
+    private void flush(List<User> batch) throws InterruptedException {
+        List<User> pending = batch;
+        long backoffMillis = retryBackoffMillis;
+        while (true) {
+            List<User> failed = write(pending);
+            if (failed.size() < pending.size()) {
+                flushSize.record(pending.size() - failed.size());
+            }
+            if (failed.isEmpty()) {
+                return;
+            }
+            retriedUsers.increment(failed.size());
+            log.warn("No se pudieron persistir {} usuarios aceptados; reintento en {} ms", failed.size(), backoffMillis);
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                giveUp(failed);
+                throw e;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, maxRetryBackoffMillis);
+            failed.forEach(UserWriteBehindQueue::resetForInsert);
+            pending = failed;
+        }
+    }
+
+    /**
+     * @return the users that failed for a transient reason and still hold their reservation
+     */
+    private List<User> write(List<User> users) {
+        try {
+            userStore.saveAll(users);
+            users.forEach(user -> pendingEmails.remove(user.getEmail()));
+            return List.of();
+        } catch (RuntimeException e) {
+            // One bad row rolls the whole chunk back; write the users one by one so only that one
+            // is set aside.
+            List<User> failed = new ArrayList<>();
+            for (User user : users) {
+                if (!writeOne(user)) {
+                    failed.add(user);
+                }
+            }
+            return failed;
+        }
+    }
+
+    /**
+     * @return {@code false} if the write failed for a transient reason and should be retried
+     */
+    private boolean writeOne(User user) {
+        resetForInsert(user);
+        try {
+            userStore.save(user);
+        } catch (DataIntegrityViolationException e) {
+            lostUsers.increment();
+            log.error("Usuario {} aceptado pero no persistido: el correo ya estaba registrado", user.getId());
+        } catch (RuntimeException e) {
+            log.warn("Usuario {} aceptado y aún no persistido", user.getId(), e);
+            return false;
+        }
+        pendingEmails.remove(user.getEmail());
+        return true;
+    }
+
+    private void giveUp(List<User> users) {
+        lostUsers.increment(users.size());
+        log.error("Se detuvo el escritor con {} usuarios aceptados sin persistir", users.size());
+        users.forEach(user -> pendingEmails.remove(user.getEmail()));
+    }
+
+    /**
+     * Undoes what a rolled-back attempt left behind so the user is inserted again from scratch:
+     * the new flag and the collection wrapper of the closed session.
+     */
+    private static void resetForInsert(User user) {
+        user.setNewEntity(true);
+        if (user.getPhones() != null) {
+            user.setPhones(new ArrayList<>(user.getPhones()));
+        }
+    }
+}
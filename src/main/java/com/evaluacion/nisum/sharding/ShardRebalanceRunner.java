@@ -0,0 +1,33 @@
+package com.evaluacion.nisum.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the {@link ShardRebalancer} once the application has started. Combined with
+ * {@code spring.main.web-application-type=none} the application exits when it ends:
+ * <pre>{@code
+ * java -jar nisum.jar --spring.profiles.active=sharded --spring.main.web-application-type=none --sharding.rebalance=true
+ * }</pre>
+ */
+@Slf4j
+@Component
+@Profile("sharded")
+@ConditionalOnProperty(prefix = "sharding", name = "rebalance", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardRebalanceRunner implements ApplicationRunner {
+
+    private final ShardRebalancer shardRebalancer;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ShardRebalancer.Result result = shardRebalancer.rebalance();
+        log.info("Reparto de usuarios terminado: {} revisados, {} movidos, {} en conflicto",
+                result.scanned(), result.moved(), result.conflicts());
+    }
+}
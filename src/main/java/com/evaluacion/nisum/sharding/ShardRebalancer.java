@@ -0,0 +1,157 @@
+package com.evaluacion.nisum.sharding;
+
+import com.evaluacion.nisum.config.ShardingProperties;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.service.UserBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Moves every user stored on a shard other than the one its email hashes to, which is what adding
+ * shards at the end of {@code sharding.shards} leaves behind.
+ * <p>
+ * Each shard is read by id, {@code sharding.rebalance-page-size} users at a time. Misplaced users
+ * are inserted on their shard first and deleted from the old one afterwards, so a run that stops
+ * halfway leaves some users on both; the next run finds the copy in place and only deletes the
+ * old one. Registrations must be stopped meanwhile: a user between two shards could be registered
+ * twice. Moved users are counted by {@code sharding.rebalance.moved}, tagged with both shards.
+ */
+@Slf4j
+@Component
+@Profile("!reactive & !embedded")
+@RequiredArgsConstructor
+public class ShardRebalancer {
+
+    private final ShardRouter shardRouter;
+    private final UserRepository userRepository;
+    private final UserBatchWriter userBatchWriter;
+    private final ShardingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public Result rebalance() {
+        Result total = new Result(0, 0, 0);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            Result result = rebalance(shard);
+            log.info("Fragmento {} revisado: {} usuarios, {} movidos, {} en conflicto",
+                    shard, result.scanned(), result.moved(), result.conflicts());
+            total = total.plus(result);
+        }
+        return total;
+    }
+
+    private Result rebalance(int source) {
+        long scanned = 0;
+        long moved = 0;
+        long conflicts = 0;
+        UUID after = null;
+        while (true) {
+            Page page = readPage(source, after);
+            scanned += page.size();
+            Map<Integer, List<User>> byTarget = new TreeMap<>();
+            for (User user : page.misplaced()) {
+                byTarget.computeIfAbsent(shardRouter.shardFor(user.getEmail()), shard -> new ArrayList<>()).add(user);
+            }
+            List<UUID> placed = new ArrayList<>();
+            for (Map.Entry<Integer, List<User>> target : byTarget.entrySet()) {
+                List<UUID> copied = copy(target.getKey(), target.getValue());
+                conflicts += target.getValue().size() - copied.size();
+                placed.addAll(copied);
+                Counter.builder("sharding.rebalance.moved")
+                        .description("Users moved to the shard their email hashes to")
+                        .tag("from", Integer.toString(source))
+                        .tag("to", Integer.toString(target.getKey()))
+                        .register(meterRegistry)
+                        .increment(copied.size());
+            }
+            if (!placed.isEmpty()) {
+                shardRouter.on(source, () -> {
+                    userRepository.deleteAllById(placed);
+                    return null;
+                });
+                moved += placed.size();
+            }
+            if (page.size() < properties.getRebalancePageSize()) {
+                return new Result(scanned, moved, conflicts);
+            }
+            after = page.last();
+        }
+    }
+
+    private Page readPage(int source, UUID after) {
+        PageRequest request = PageRequest.ofSize(properties.getRebalancePageSize());
+        return shardRouter.on(source, () -> {
+            List<User> users = after == null
+                    ? userRepository.findPage(request)
+                    : userRepository.findPageAfter(after, request);
+            List<User> misplaced = new ArrayList<>();
+            for (User user : users) {
+                if (shardRouter.shardFor(user.getEmail()) != source) {
+                    Hibernate.initialize(user.getPhones());
+                    misplaced.add(detachedCopy(user));
+                }
+            }
+            return new Page(misplaced, users.size(), users.isEmpty() ? after : users.get(users.size() - 1).getId());
+        });
+    }
+
+    /**
+     * Inserts the users on the target shard, one by one if the batch conflicts.
+     *
+     * @return the ids now present on the target
+     */
+    private List<UUID> copy(int target, List<User> users) {
+        try {
+            shardRouter.on(target, () -> userBatchWriter.saveChunk(users.stream().map(ShardRebalancer::detachedCopy).toList()));
+            return users.stream().map(User::getId).toList();
+        } catch (DataIntegrityViolationException e) {
+            List<UUID> copied = new ArrayList<>(users.size());
+            for (User user : users) {
+                try {
+                    shardRouter.on(target, () -> userRepository.save(detachedCopy(user)));
+                    copied.add(user.getId());
+                } catch (DataIntegrityViolationException conflict) {
+                    if (shardRouter.on(target, () -> userRepository.existsById(user.getId()))) {
+                        // Copied by an earlier run that stopped before deleting it here.
+                        copied.add(user.getId());
+                    } else {
+                        log.warn("El correo del usuario {} ya pertenece a otro usuario del fragmento {}; se deja donde está",
+                                user.getId(), target);
+                    }
+                }
+            }
+            return copied;
+        }
+    }
+
+    private static User detachedCopy(User user) {
+        return user.toBuilder().newEntity(true).phones(new ArrayList<>(user.getPhones())).build();
+    }
+
+    /**
+     * Users read from a shard ({@code scanned}), moved to their shard, and left in place because
+     * their email is already taken there.
+     */
+    public record Result(long scanned, long moved, long conflicts) {
+
+        Result plus(Result other) {
+            return new Result(scanned + other.scanned, moved + other.moved, conflicts + other.conflicts);
+        }
+    }
+
+    private record Page(List<User> misplaced, int size, UUID last) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.evaluacion.nisum.sharding;
+
+import com.evaluacion.nisum.config.ShardingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard holds a user and runs work against it.
+ * <p>
+ * A user lives on the shard given by a jump consistent hash of its trimmed, lower-cased email, so
+ * anything keyed by email touches a single database, and adding a shard at the end only moves the
+ * users that now hash to it. Lookups by id or token do not know the shard and ask all of them in
+ * parallel. Without the {@code sharded} profile there is a single shard and work runs inline,
+ * in the caller's transaction.
+ * <p>
+ * Each shard publishes a {@code sharding.shard.operations} timer tagged with its number.
+ */
+@Component
+@Profile("!reactive & !embedded")
+public class ShardRouter implements DisposableBean {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int shardCount;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService fanOut;
+    private final List<Timer> operations = new ArrayList<>();
+
+    public ShardRouter(ObjectProvider<ShardRoutingDataSource> routingDataSource, ShardingProperties properties,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        ShardRoutingDataSource dataSource = routingDataSource.getIfAvailable();
+        if (dataSource == null) {
+            this.shardCount = 1;
+            this.transactionTemplate = null;
+            this.fanOut = null;
+            return;
+        }
+        this.shardCount = dataSource.shardCount();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int threads = properties.getFanOutThreads() > 0
+                ? properties.getFanOutThreads()
+                : Math.max(shardCount * 2, Runtime.getRuntime().availableProcessors());
+        this.fanOut = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("shard-fan-out-", 0).daemon().factory());
+        for (int shard = 0; shard < shardCount; shard++) {
+            operations.add(Timer.builder("sharding.shard.operations")
+                    .description("Transactions run on each shard")
+                    .tag("shard", Integer.toString(shard))
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isSharded() {
+        return fanOut != null;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(String email) {
+        return email == null ? 0 : shardFor(email, shardCount);
+    }
+
+    /**
+     * Runs work with connections from the given shard, in a new transaction when sharded: the
+     * routing data source picks the database when a transaction takes its connection.
+     */
+    public <T> T on(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        long started = System.nanoTime();
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } finally {
+            operations.get(shard).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs work on every shard in parallel, each with {@link #on}.
+     *
+     * @return the result of each shard, by shard number
+     */
+    public <T> List<T> onEach(IntFunction<T> work) {
+        if (!isSharded()) {
+            return List.of(work.apply(0));
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(fanOut.submit(() -> on(target, () -> work.apply(target))));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta a los fragmentos interrumpida", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new IllegalStateException("Error al consultar los fragmentos", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Asks every shard in parallel for something only one of them has.
+     */
+    public <T> Optional<T> findFirst(IntFunction<Optional<T>> work) {
+        for (Optional<T> result : onEach(work)) {
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void destroy() {
+        if (fanOut != null) {
+            fanOut.shutdownNow();
+        }
+    }
+
+    static Integer currentShard() {
+        return CURRENT.get();
+    }
+
+    static int shardFor(String email, int shards) {
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return jumpConsistentHash(mix(hash), shards);
+    }
+
+    /**
+     * Lamping and Veach's jump consistent hash: going from n to n + 1 buckets moves only the keys
+     * that land in the new one.
+     */
+    static int jumpConsistentHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
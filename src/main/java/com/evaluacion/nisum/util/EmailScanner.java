@@ -0,0 +1,73 @@
+package com.evaluacion.nisum.util;
+
+/**
+ * Single-pass, allocation-free equivalent of {@link #REGEX}.
+ * <p>
+ * {@code Pattern.matches(REGEX, s) == EmailScanner.matches(s)} holds for every input.
+ */
+public final class EmailScanner {
+
+    public static final String REGEX = "^[\\w!#$%&'*+/=?`{|}~^.-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
+
+    private static final boolean[] LOCAL_PART = new boolean[128];
+    private static final boolean[] DOMAIN = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            LOCAL_PART[c] = true;
+            LOCAL_PART[Character.toUpperCase(c)] = true;
+            DOMAIN[c] = true;
+            DOMAIN[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            LOCAL_PART[c] = true;
+            DOMAIN[c] = true;
+        }
+        for (char c : "_!#$%&'*+/=?`{|}~^.-".toCharArray()) {
+            LOCAL_PART[c] = true;
+        }
+        DOMAIN['.'] = true;
+        DOMAIN['-'] = true;
+    }
+
+    private EmailScanner() {
+    }
+
+    public static boolean matches(CharSequence input) {
+        int length = input.length();
+
+        int at = 0;
+        while (at < length && input.charAt(at) != '@') {
+            char c = input.charAt(at);
+            if (c >= 128 || !LOCAL_PART[c]) {
+                return false;
+            }
+            at++;
+        }
+        if (at == 0 || at == length) {
+            return false;
+        }
+
+        // The TLD cannot contain dots, so the separating "\." is always the last dot of the domain.
+        int lastDot = -1;
+        for (int i = at + 1; i < length; i++) {
+            char c = input.charAt(i);
+            if (c >= 128 || !DOMAIN[c]) {
+                return false;
+            }
+            if (c == '.') {
+                lastDot = i;
+            }
+        }
+        if (lastDot <= at + 1 || length - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            char c = input.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
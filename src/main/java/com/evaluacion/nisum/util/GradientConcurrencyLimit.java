@@ -0,0 +1,120 @@
+package com.evaluacion.nisum.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Adaptive concurrency limit driven by latency, after the gradient algorithm of Netflix's
+ * concurrency-limits library.
+ * <p>
+ * A long-term average of the round-trip time stands for the latency of a healthy system. Each sample
+ * compares it with the latest latency: while they are close the limit grows by about
+ * {@code sqrt(limit)}, and when latency rises above {@value #TOLERANCE} times the average (requests
+ * queueing behind a stalled database) the limit shrinks by up to half, smoothed over several
+ * samples. Samples taken with less than half the limit in use do not grow it, since they say
+ * nothing about the capacity. A failed request cuts the limit as much as the worst latency sample.
+ * <p>
+ * Lock-free: in-flight requests are a CAS-guarded counter and the limit and average are swapped as
+ * one immutable state.
+ */
+public class GradientConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * Smallest gradient: one sample never shrinks the limit below half before smoothing.
+     */
+    private static final double MIN_GRADIENT = 0.5;
+
+    /**
+     * Samples in the long-term average; the first ones are averaged plainly.
+     */
+    private static final int WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<State> state;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.state = new AtomicReference<>(new State(initialLimit, 0, 0));
+    }
+
+    /**
+     * Takes a slot if fewer than {@link #limit()} requests are in flight. Every successful call must
+     * be followed by {@link #release(long)}, {@link #releaseDropped()} or {@link #releaseIgnored()}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees a slot and feeds the request latency to the limit.
+     */
+    public void release(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        state.updateAndGet(current -> current.next(Math.max(rttNanos, 1), inFlightAtCompletion, minLimit, maxLimit));
+    }
+
+    /**
+     * Frees a slot for a request that failed on the server side (a timeout, a lost connection) and
+     * cuts the limit. Its latency is not sampled: a failure can be fast and would read as healthy.
+     */
+    public void releaseDropped() {
+        inFlight.decrementAndGet();
+        state.updateAndGet(current -> current.dropped(minLimit));
+    }
+
+    /**
+     * Frees a slot without a sample, for requests whose latency says nothing about the load (for
+     * example those rejected by validation).
+     */
+    public void releaseIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return (int) state.get().limit();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private record State(double limit, double longRtt, int samples) {
+
+        State next(double rtt, int inFlight, int minLimit, int maxLimit) {
+            int count = Math.min(samples + 1, WINDOW);
+            double average = samples == 0 ? rtt : longRtt + (rtt - longRtt) / count;
+            if (average / rtt > 2) {
+                // Latency dropped well below the average after a stall; let the average catch up
+                // faster so the limit can recover.
+                average *= 0.95;
+            }
+            if (inFlight < limit / 2) {
+                return new State(limit, average, count);
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * average / rtt));
+            double target = limit * gradient + Math.sqrt(limit);
+            double smoothed = limit * (1 - SMOOTHING) + target * SMOOTHING;
+            return new State(Math.max(minLimit, Math.min(maxLimit, smoothed)), average, count);
+        }
+
+        State dropped(int minLimit) {
+            double smoothed = limit * (1 - SMOOTHING) + limit * MIN_GRADIENT * SMOOTHING;
+            return new State(Math.max(minLimit, smoothed), longRtt, samples);
+        }
+    }
+}
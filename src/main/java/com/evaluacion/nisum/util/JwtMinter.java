@@ -0,0 +1,276 @@
+package com.evaluacion.nisum.util;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mints HS256 tokens byte-for-byte identical to
+ * {@code Jwts.builder().setSubject(sub).setExpiration(exp).setId(jti).signWith(key, HS256).compact()}.
+ * <p>
+ * The header never changes, so it is encoded once; each call only serializes {@code sub},
+ * {@code exp} and {@code jti}, signs with a pooled {@link Mac} and writes everything into that entry's buffers.
+ * The returned {@code String} is the only allocation on the common path.
+ * <p>
+ * The pool is a fixed array of slots claimed with CAS rather than a {@code ThreadLocal}: with
+ * virtual threads every request runs on a fresh thread, so per-thread state would be rebuilt on
+ * each call. When every slot is busy a temporary entry is created and dropped afterwards.
+ */
+public class JwtMinter {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private static final byte[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    /** {@code {"alg":"HS256"}} followed by the separator. */
+    private static final byte[] ENCODED_HEADER = "eyJhbGciOiJIUzI1NiJ9.".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] SUB_PREFIX = "{\"sub\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP_AFTER_SUB = "\",\"exp\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP_ONLY = "{\"exp\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JTI_AFTER_EXP = ",\"jti\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final Key key;
+
+    private final AtomicReferenceArray<State> pool;
+
+    public JwtMinter(Key key) {
+        this.key = key;
+        this.pool = new AtomicReferenceArray<>(Runtime.getRuntime().availableProcessors() * 2);
+        for (int i = 0; i < pool.length(); i++) {
+            pool.set(i, newState());
+        }
+    }
+
+    /**
+     * Mints a token for {@code subject} with the id {@code jti}, expiring at {@code expirationMillis}.
+     * Like jjwt, a subject or id without text is left out of the claims.
+     *
+     * @throws IllegalArgumentException if the subject or id contains an unpaired surrogate, which
+     *                                  jjwt's JSON serializer rejects as well
+     */
+    public String mint(String subject, String jti, long expirationMillis) {
+        int slot = (int) (Thread.currentThread().threadId() % pool.length());
+        State s = acquire(slot);
+        try {
+            return mint(s, subject, jti, expirationMillis);
+        } finally {
+            release(slot, s);
+        }
+    }
+
+    private static String mint(State s, String subject, String jti, long expirationMillis) {
+        int claimsEnd = writeClaims(s, subject, jti, expirationMillis / 1000);
+
+        byte[] out = s.ensureOutput(ENCODED_HEADER.length + base64Length(claimsEnd) + 1 + base64Length(SIGNATURE_LENGTH));
+        System.arraycopy(ENCODED_HEADER, 0, out, 0, ENCODED_HEADER.length);
+        int position = encode(s.claims, claimsEnd, out, ENCODED_HEADER.length);
+
+        s.mac.update(out, 0, position);
+        try {
+            s.mac.doFinal(s.signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar el token", e);
+        }
+
+        out[position++] = '.';
+        position = encode(s.signature, SIGNATURE_LENGTH, out, position);
+        return new String(out, 0, position, StandardCharsets.US_ASCII);
+    }
+
+    private static int writeClaims(State s, String subject, String jti, long expirationSeconds) {
+        boolean withSubject = hasText(subject);
+        boolean withJti = hasText(jti);
+        s.ensureClaims(SUB_PREFIX.length + (withSubject ? subject.length() * 6 : 0) + EXP_AFTER_SUB.length + 21
+                + JTI_AFTER_EXP.length + (withJti ? jti.length() * 6 : 0) + 2);
+        int position;
+        if (withSubject) {
+            position = put(s.claims, 0, SUB_PREFIX);
+            position = writeJsonString(subject, s.claims, position);
+            position = put(s.claims, position, EXP_AFTER_SUB);
+        } else {
+            position = put(s.claims, 0, EXP_ONLY);
+        }
+        position = writeLong(expirationSeconds, s.claims, position);
+        if (withJti) {
+            position = put(s.claims, position, JTI_AFTER_EXP);
+            position = writeJsonString(jti, s.claims, position);
+            s.claims[position++] = '"';
+        }
+        s.claims[position++] = '}';
+        return position;
+    }
+
+    /**
+     * Writes the UTF-8 body of a JSON string the way Jackson's default generator does.
+     */
+    private static int writeJsonString(String value, byte[] dst, int position) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    dst[position++] = (byte) c;
+                    continue;
+                }
+                dst[position++] = '\\';
+                switch (c) {
+                    case '"', '\\' -> dst[position++] = (byte) c;
+                    case '\b' -> dst[position++] = 'b';
+                    case '\t' -> dst[position++] = 't';
+                    case '\n' -> dst[position++] = 'n';
+                    case '\f' -> dst[position++] = 'f';
+                    case '\r' -> dst[position++] = 'r';
+                    default -> {
+                        dst[position++] = 'u';
+                        dst[position++] = '0';
+                        dst[position++] = '0';
+                        dst[position++] = HEX[c >> 4];
+                        dst[position++] = HEX[c & 0xF];
+                    }
+                }
+            } else if (c < 0x800) {
+                dst[position++] = (byte) (0xC0 | (c >> 6));
+                dst[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (!Character.isHighSurrogate(c) || i + 1 >= length || !Character.isLowSurrogate(value.charAt(i + 1))) {
+                    throw new IllegalArgumentException("El token contiene un surrogate sin pareja");
+                }
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                dst[position++] = (byte) (0xF0 | (codePoint >> 18));
+                dst[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                dst[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                dst[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                dst[position++] = (byte) (0xE0 | (c >> 12));
+                dst[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dst[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    private static int writeLong(long value, byte[] dst, int position) {
+        if (value < 0) {
+            dst[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            dst[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Base64url without padding, as produced by jjwt.
+     */
+    private static int encode(byte[] src, int length, byte[] dst, int position) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[position++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            dst[position++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[position++] = BASE64_URL[(bits >>> 6) & 0x3F];
+            dst[position++] = BASE64_URL[bits & 0x3F];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            dst[position++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            dst[position++] = BASE64_URL[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[position++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            dst[position++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[position++] = BASE64_URL[(bits >>> 6) & 0x3F];
+        }
+        return position;
+    }
+
+    private static int base64Length(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    private static int put(byte[] dst, int position, byte[] src) {
+        System.arraycopy(src, 0, dst, position, src.length);
+        return position + src.length;
+    }
+
+    private static boolean hasText(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private State acquire(int start) {
+        for (int i = 0; i < pool.length(); i++) {
+            State s = pool.getAndSet((start + i) % pool.length(), null);
+            if (s != null) {
+                return s;
+            }
+        }
+        return newState();
+    }
+
+    private void release(int start, State s) {
+        for (int i = 0; i < pool.length(); i++) {
+            if (pool.compareAndSet((start + i) % pool.length(), null, s)) {
+                return;
+            }
+        }
+    }
+
+    private State newState() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return new State(mac);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar " + ALGORITHM, e);
+        }
+    }
+
+    private static final class State {
+        private final Mac mac;
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private byte[] claims = new byte[128];
+        private byte[] output = new byte[256];
+
+        private State(Mac mac) {
+            this.mac = mac;
+        }
+
+        private void ensureClaims(int capacity) {
+            if (claims.length < capacity) {
+                claims = Arrays.copyOf(claims, Math.max(capacity, claims.length * 2));
+            }
+        }
+
+        private byte[] ensureOutput(int capacity) {
+            if (output.length < capacity) {
+                output = Arrays.copyOf(output, Math.max(capacity, output.length * 2));
+            }
+            return output;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.evaluacion.nisum.util;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -7,23 +9,79 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class JwtUtil {
 
+    private static final long VERSION_MASK = 0xFFFF_FFFF_FFFF_0FFFL;
+    private static final long VERSION_4 = 0x4000L;
+    private static final long VARIANT_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final long VARIANT_RFC = 0x8000_0000_0000_0000L;
+
     private final String SECRET_KEY = "TuClaveSecretaParaJWT12345678901234";
 
     private final long EXPIRATION_TIME = 864_000_000;
 
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+
+    private final JwtMinter minter = new JwtMinter(signingKey);
+
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
     protected Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signingKey;
     }
 
+    /**
+     * Mints a token for a new user. Names repeat and the expiration has whole-second precision, so
+     * a random {@code jti} is what keeps two users registered in the same second from sharing a
+     * token, which is also how login finds the user.
+     */
     public String generateToken(String username) {
+        return minter.mint(username, newTokenId(), System.currentTimeMillis() + EXPIRATION_TIME);
+    }
+
+    /**
+     * Builds the token through the jjwt builder. Produces the same bytes as
+     * {@link JwtMinter#mint(String, String, long)} and is kept as the reference implementation.
+     *
+     * @param username   the token subject
+     * @param id         the token id ({@code jti}), left out if {@code null}
+     * @param expiration the token expiration
+     * @return the signed token
+     */
+    public String generateTokenWithBuilder(String username, String id, Date expiration) {
         return Jwts.builder()
                 .setSubject(username)
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(expiration)
+                .setId(id)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies the signature and expiration of a token produced by {@link #generateToken(String)}.
+     * The signature is compared in constant time.
+     *
+     * @param token the compact token
+     * @return the token claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * A version 4 UUID. Only has to be unique, not secret: the token is signed.
+     * {@link ThreadLocalRandom} avoids the contended {@code SecureRandom} behind
+     * {@link UUID#randomUUID()}.
+     */
+    private static String newTokenId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSignificant = random.nextLong() & VERSION_MASK | VERSION_4;
+        long leastSignificant = random.nextLong() & VARIANT_MASK | VARIANT_RFC;
+        return new UUID(mostSignificant, leastSignificant).toString();
+    }
+}
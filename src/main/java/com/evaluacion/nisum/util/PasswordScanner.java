@@ -0,0 +1,47 @@
+package com.evaluacion.nisum.util;
+
+/**
+ * Single-pass, allocation-free equivalent of {@link #REGEX}.
+ * <p>
+ * {@code Pattern.matches(REGEX, s) == PasswordScanner.matches(s)} holds for every input: the
+ * length is counted in code points and line terminators are rejected, like {@code .} does.
+ */
+public final class PasswordScanner {
+
+    public static final String REGEX = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$";
+
+    private static final int MIN_LENGTH = 8;
+
+    private PasswordScanner() {
+    }
+
+    public static boolean matches(CharSequence input) {
+        int length = input.length();
+        int codePoints = 0;
+        boolean digit = false;
+        boolean lower = false;
+        boolean upper = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c >= 'a' && c <= 'z') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (isLineTerminator(c)) {
+                return false;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(input.charAt(i + 1))) {
+                i++;
+            }
+            codePoints++;
+        }
+        return digit && lower && upper && codePoints >= MIN_LENGTH;
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
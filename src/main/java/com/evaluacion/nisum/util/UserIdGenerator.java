@@ -0,0 +1,20 @@
+package com.evaluacion.nisum.util;
+
+import java.util.UUID;
+
+/**
+ * Source of new user ids, selected with {@code registration.id-generator}. Every id is an ordinary
+ * {@link UUID}, so responses and stored rows look the same whichever generator made them.
+ */
+@FunctionalInterface
+public interface UserIdGenerator {
+
+    UUID next();
+
+    /**
+     * Version 4 ids: fully random, so consecutive inserts land anywhere in the primary-key index.
+     */
+    static UserIdGenerator random() {
+        return UUID::randomUUID;
+    }
+}
@@ -0,0 +1,22 @@
+-- Moves phones from the phone entity tables (phone + app_user_phones + phone_seq) to the
+-- user_phone collection table used by User.phones. Run once, with the application stopped,
+-- against a database created by a previous version, e.g.:
+--   java -cp h2.jar org.h2.tools.RunScript -url <jdbc-url> -user sa -script migrate-phones-inline.sql
+-- Take a backup first: the old tables are dropped once the rows have been copied.
+
+create table if not exists user_phone (
+    user_id uuid not null,
+    number varchar(255),
+    city_code varchar(255),
+    country_code varchar(255),
+    foreign key (user_id) references app_user (id)
+);
+
+insert into user_phone (user_id, number, city_code, country_code)
+select up.app_user_id, p.number, p.city_code, p.country_code
+from app_user_phones up
+join phone p on p.id = up.phones_id;
+
+drop table app_user_phones;
+drop table phone;
+drop sequence if exists phone_seq;
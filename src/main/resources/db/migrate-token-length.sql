@@ -0,0 +1,6 @@
+-- Widens app_user.token for tokens that carry a jti claim: with it, names longer than about 70
+-- UTF-8 bytes no longer fit in varchar(255). Run once against a database created by a previous
+-- version, e.g.:
+--   java -cp h2.jar org.h2.tools.RunScript -url <jdbc-url> -user sa -script migrate-token-length.sql
+
+alter table app_user alter column token set data type varchar(2048);
@@ -0,0 +1,24 @@
+-- Same tables Hibernate generates for User and its Phone collection, for the profiles that do not
+-- let Hibernate create the schema: reactive (R2DBC) and fast.
+create table if not exists app_user (
+    id uuid not null,
+    name varchar(255),
+    email varchar(255) unique,
+    password varchar(255),
+    created timestamp(6),
+    modified timestamp(6),
+    last_login timestamp(6),
+    token varchar(2048),
+    is_active boolean,
+    primary key (id)
+);
+
+create index if not exists idx_app_user_token on app_user (token);
+
+create table if not exists user_phone (
+    user_id uuid not null,
+    number varchar(255),
+    city_code varchar(255),
+    country_code varchar(255),
+    foreign key (user_id) references app_user (id)
+);
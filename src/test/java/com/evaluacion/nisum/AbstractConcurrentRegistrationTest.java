@@ -0,0 +1,84 @@
+package com.evaluacion.nisum;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires many parallel registrations that reuse the same emails and checks that exactly one of them
+ * wins per email while all the others get a 409, never a 500.
+ */
+abstract class AbstractConcurrentRegistrationTest {
+
+    private static final int EMAILS = 40;
+    private static final int ATTEMPTS_PER_EMAIL = 10;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Debería registrar exactamente un usuario por correo bajo concurrencia")
+    void shouldRegisterExactlyOneUserPerEmail() throws Exception {
+        String prefix = getClass().getSimpleName().toLowerCase();
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < EMAILS; i++) {
+            for (int attempt = 0; attempt < ATTEMPTS_PER_EMAIL; attempt++) {
+                emails.add(prefix + i + "@example.com");
+            }
+        }
+        Collections.shuffle(emails);
+
+        Map<String, List<Integer>> statusesByEmail = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (String email : emails) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    UserRequest userRequest = UserRequest.builder()
+                            .name("Concurrente")
+                            .email(email)
+                            .password("Password123")
+                            .phones(ModelGenerator.generatePhoneDtos(1))
+                            .build();
+                    ResponseEntity<String> response = restTemplate.postForEntity("/registro", userRequest, String.class);
+                    statusesByEmail.computeIfAbsent(email, key -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(response.getStatusCode().value());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statusesByEmail).hasSize(EMAILS);
+        statusesByEmail.forEach((email, statuses) -> {
+            assertThat(statuses).as("estados para %s", email).hasSize(ATTEMPTS_PER_EMAIL);
+            assertThat(statuses).as("estados para %s", email).containsOnly(201, 409);
+            assertThat(statuses.stream().filter(status -> status == 201).count()).as("201 para %s", email).isEqualTo(1);
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.evaluacion.nisum;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"registration.mode=insert-first", "password-hashing.cost=1000"})
+class EmbeddedConcurrentRegistrationTest extends AbstractConcurrentRegistrationTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void embeddedStore(DynamicPropertyRegistry registry) {
+        registry.add("embedded-store.directory", () -> directory.toString());
+    }
+}
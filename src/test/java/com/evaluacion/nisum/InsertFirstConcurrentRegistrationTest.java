@@ -0,0 +1,8 @@
+package com.evaluacion.nisum;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"registration.mode=insert-first", "password-hashing.cost=1000"})
+class InsertFirstConcurrentRegistrationTest extends AbstractConcurrentRegistrationTest {
+}
@@ -0,0 +1,13 @@
+package com.evaluacion.nisum;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("sharded")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"password-hashing.cost=1000",
+                "sharding.shards[0].url=jdbc:h2:mem:concurrent0;DB_CLOSE_DELAY=-1",
+                "sharding.shards[1].url=jdbc:h2:mem:concurrent1;DB_CLOSE_DELAY=-1",
+                "sharding.shards[2].url=jdbc:h2:mem:concurrent2;DB_CLOSE_DELAY=-1"})
+class ShardedConcurrentRegistrationTest extends AbstractConcurrentRegistrationTest {
+}
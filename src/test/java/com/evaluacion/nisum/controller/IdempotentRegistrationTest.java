@@ -0,0 +1,66 @@
+package com.evaluacion.nisum.controller;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "password-hashing.cost=1000")
+@AutoConfigureMockMvc
+class IdempotentRegistrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Debería devolver el mismo usuario al reintentar con la misma clave de idempotencia")
+    void shouldReplayRetriedRegistration() throws Exception {
+        UserRequest userRequest = ModelGenerator.generateUserRequest("reintento@example.com");
+
+        String body = mockMvc.perform(register(userRequest).header(UserController.IDEMPOTENCY_KEY, "registro-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(UserController.IDEMPOTENT_REPLAYED))
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(body).get("id").asText();
+
+        mockMvc.perform(register(userRequest).header(UserController.IDEMPOTENCY_KEY, "registro-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(UserController.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(jsonPath("$.id").value(id));
+
+        mockMvc.perform(register(userRequest))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Debería retornar 422 si la clave se reutiliza con otra solicitud")
+    void shouldRejectKeyReusedWithAnotherBody() throws Exception {
+        mockMvc.perform(register(ModelGenerator.generateUserRequest("primera@example.com"))
+                        .header(UserController.IDEMPOTENCY_KEY, "registro-2"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(register(ModelGenerator.generateUserRequest("segunda@example.com"))
+                        .header(UserController.IDEMPOTENCY_KEY, "registro-2"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.mensaje").value("La clave de idempotencia ya se usó con otra solicitud"));
+    }
+
+    private MockHttpServletRequestBuilder register(UserRequest userRequest) throws Exception {
+        return post("/registro")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userRequest));
+    }
+}
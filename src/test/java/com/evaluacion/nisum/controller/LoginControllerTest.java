@@ -0,0 +1,56 @@
+package com.evaluacion.nisum.controller;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.service.LoginService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LoginController.class)
+class LoginControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LoginService loginService;
+
+    @Test
+    @DisplayName("Debería iniciar sesión con el token del encabezado Authorization")
+    void shouldLoginWithBearerToken() throws Exception {
+        UserDetailResponse user = UserDetailResponse.builder()
+                .id(UUID.randomUUID())
+                .name("Juan Pérez")
+                .email("juan.perez@example.com")
+                .lastLogin(LocalDateTime.now())
+                .isActive(true)
+                .build();
+        Mockito.when(loginService.login("jwt-token-123")).thenReturn(user);
+
+        mockMvc.perform(post("/login").header("Authorization", "Bearer jwt-token-123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId().toString()))
+                .andExpect(jsonPath("$.token").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Debería retornar 401 si falta el token")
+    void shouldRejectMissingToken() throws Exception {
+        mockMvc.perform(post("/login"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.mensaje").value("Falta el token en el encabezado Authorization"));
+
+        Mockito.verify(loginService, Mockito.never()).login(anyString());
+    }
+}
@@ -0,0 +1,120 @@
+package com.evaluacion.nisum.controller;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ValidationException;
+import com.evaluacion.nisum.service.ReactiveUserService;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Same behavioral cases as {@link UserControllerTest}, against the WebFlux controller.
+ */
+@WebFluxTest(ReactiveUserController.class)
+@ActiveProfiles("reactive")
+public class ReactiveUserControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveUserService userService;
+
+    private final String REGISTRO_PATH = "/registro";
+
+    @Test
+    @DisplayName("Debería registrar un usuario correctamente y retornar 201 CREATED")
+    void shouldRegisterUserSuccessfully() {
+        UserRequest userRequest = UserRequest.builder()
+                .name("Juan Pérez")
+                .email("juan.perez@example.com")
+                .password("Password123")
+                .phones(ModelGenerator.generatePhoneDtos(1))
+                .build();
+
+        UserResponse userResponse = UserResponse.builder()
+                .id(UUID.randomUUID())
+                .created(LocalDateTime.now())
+                .modified(LocalDateTime.now())
+                .lastLogin(LocalDateTime.now())
+                .token("jwt-token-123")
+                .isActive(true)
+                .build();
+
+        Mockito.when(userService.registerUser(any(UserRequest.class))).thenReturn(Mono.just(userResponse));
+
+        webTestClient.post().uri(REGISTRO_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(userResponse.getId().toString())
+                .jsonPath("$.created").exists()
+                .jsonPath("$.modified").exists()
+                .jsonPath("$.lastLogin").exists()
+                .jsonPath("$.token").isEqualTo("jwt-token-123")
+                .jsonPath("$.isActive").isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Debería retornar 409 CONFLICT si el email ya está registrado")
+    void shouldReturnConflictWhenEmailAlreadyExists() {
+        UserRequest userRequest = UserRequest.builder()
+                .name("Juan Pérez")
+                .email("juan.perez@example.com")
+                .password("Password123")
+                .phones(null)
+                .build();
+
+        Mockito.when(userService.registerUser(any(UserRequest.class)))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "El correo ya está registrado")));
+
+        webTestClient.post().uri(REGISTRO_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userRequest)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.mensaje").isEqualTo("El correo ya está registrado");
+    }
+
+    @Test
+    @DisplayName("Debería retornar 400 BAD REQUEST si el payload es inválido")
+    void shouldReturnBadRequestForInvalidPayload() {
+        UserRequest userRequest = UserRequest.builder()
+                .name("Juan Pérez")
+                .email("email-invalido")
+                .password("pass")
+                .phones(null)
+                .build();
+
+        Mockito.when(userService.registerUser(any(UserRequest.class)))
+                .thenReturn(Mono.error(new ValidationException("Formato de correo inválido")));
+
+        webTestClient.post().uri(REGISTRO_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userRequest)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.mensaje").isEqualTo("Formato de correo inválido");
+    }
+}
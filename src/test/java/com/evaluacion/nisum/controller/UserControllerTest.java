@@ -1,7 +1,10 @@
 package com.evaluacion.nisum.controller;
 
+import com.evaluacion.nisum.dto.BulkRegistrationResult;
 import com.evaluacion.nisum.dto.UserRequest;
 import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ConflictException;
+import com.evaluacion.nisum.exception.OverloadedException;
 import com.evaluacion.nisum.exception.ValidationException;
 import com.evaluacion.nisum.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,10 +18,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -43,7 +52,7 @@ public class UserControllerTest {
                 .name("Juan Pérez")
                 .email("juan.perez@example.com")
                 .password("Password123")
-                .phones(ModelGenerator.generatePhones(1))
+                .phones(ModelGenerator.generatePhoneDtos(1))
                 .build();
 
         UserResponse userResponse = UserResponse.builder()
@@ -111,4 +120,65 @@ public class UserControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.mensaje").value("Formato de correo inválido"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debería responder los rechazos precalculados con el mismo JSON que Jackson")
+    void shouldWritePreparedRejectionBodies() throws Exception {
+        Mockito.when(userService.registerUser(any(UserRequest.class)))
+                .thenThrow(ValidationException.INVALID_PASSWORD, ConflictException.EMAIL_ALREADY_REGISTERED);
+
+        String invalid = mockMvc.perform(post(REGISTRO_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ModelGenerator.generateUserRequest("rechazo@example.com"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String conflict = mockMvc.perform(post(REGISTRO_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ModelGenerator.generateUserRequest("rechazo@example.com"))))
+                .andExpect(status().isConflict())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(invalid).isEqualTo(objectMapper.writeValueAsString(Map.of("mensaje", "La contraseña no cumple con los requisitos")));
+        assertThat(conflict).isEqualTo(objectMapper.writeValueAsString(Map.of("mensaje", "El correo ya está registrado")));
+        assertThat(ValidationException.INVALID_PASSWORD.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería registrar un lote y retornar el resultado de cada entrada")
+    void shouldRegisterBatch() throws Exception {
+        List<UserRequest> userRequests = List.of(
+                UserRequest.builder().name("Uno").email("uno@example.com").password("Password123").build(),
+                UserRequest.builder().name("Dos").email("email-invalido").password("Password123").build());
+
+        UUID id = UUID.randomUUID();
+        Mockito.when(userService.registerUsers(anyList())).thenReturn(List.of(
+                BulkRegistrationResult.builder().index(0).status(201)
+                        .user(UserResponse.builder().id(id).token("jwt-token-123").isActive(true).build()).build(),
+                BulkRegistrationResult.builder().index(1).status(400).mensaje("Formato de correo inválido").build()));
+
+        mockMvc.perform(post(REGISTRO_PATH + "/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].user.id").value(id.toString()))
+                .andExpect(jsonPath("$[0].mensaje").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].mensaje").value("Formato de correo inválido"));
+    }
+
+    @Test
+    @DisplayName("Debería retornar 503 con Retry-After cuando el servicio está saturado")
+    void shouldShedWithRetryAfter() throws Exception {
+        Mockito.when(userService.registerUser(any(UserRequest.class)))
+                .thenThrow(new OverloadedException(Duration.ofMillis(1500)));
+
+        mockMvc.perform(post(REGISTRO_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ModelGenerator.generateUserRequest("saturado@example.com"))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.mensaje").value("El servicio está saturado, intente nuevamente"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.evaluacion.nisum.controller;
+
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "password-hashing.cost=1000")
+@AutoConfigureMockMvc
+class UserExportTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Debería exportar los usuarios como NDJSON y reanudar desde un cursor")
+    void shouldExportAndResume() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = ModelGenerator.generateUser(200 + i);
+            user.setCreated(BASE.plusSeconds(i));
+            users.add(userRepository.save(user));
+        }
+
+        List<JsonNode> all = exportedLines(export(get("/usuarios/export")));
+        List<JsonNode> ours = all.subList(0, 3);
+        assertThat(ours).extracting(line -> line.get("email").asText())
+                .containsExactly("testuser200@example.com", "testuser201@example.com", "testuser202@example.com");
+        assertThat(ours.get(0).get("phones")).hasSize(2);
+        assertThat(ours.get(0).get("phones").get(0).get("contrycode").asText()).isEqualTo("57");
+        assertThat(ours.get(0).has("password")).isFalse();
+
+        List<JsonNode> resumed = exportedLines(export(get("/usuarios/export")
+                .param("afterCreated", "2000-01-01T00:00:01")
+                .param("afterId", users.get(1).getId().toString())));
+        assertThat(resumed.get(0).get("email").asText()).isEqualTo("testuser202@example.com");
+        assertThat(resumed).hasSize(all.size() - 2);
+    }
+
+    @Test
+    @DisplayName("Debería comprimir la exportación con gzip cuando se acepta")
+    void shouldCompressWithGzip() throws Exception {
+        userRepository.save(ModelGenerator.generateUser(210));
+
+        MvcResult result = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/usuarios/export")
+                                .header("Accept-Encoding", "gzip"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            String ndjson = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(ndjson).contains("testuser210@example.com").endsWith("\n");
+        }
+    }
+
+    private String export(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private List<JsonNode> exportedLines(String ndjson) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
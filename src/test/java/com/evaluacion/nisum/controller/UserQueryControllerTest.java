@@ -0,0 +1,93 @@
+package com.evaluacion.nisum.controller;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.service.UserExportService;
+import com.evaluacion.nisum.service.UserQueryService;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserQueryController.class)
+public class UserQueryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserQueryService userQueryService;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    private final UserDetailResponse user = UserDetailResponse.builder()
+            .id(UUID.randomUUID())
+            .name("Juan Pérez")
+            .email("juan.perez@example.com")
+            .created(LocalDateTime.of(2024, 1, 1, 10, 0))
+            .modified(LocalDateTime.of(2024, 1, 1, 10, 0))
+            .lastLogin(LocalDateTime.of(2024, 1, 1, 10, 0))
+            .isActive(true)
+            .build();
+
+    @Test
+    @DisplayName("Debería retornar el usuario con su ETag y sin teléfonos")
+    void shouldReturnUserWithETag() throws Exception {
+        Mockito.when(userQueryService.findById(user.getId(), false)).thenReturn(Optional.of(user));
+
+        mockMvc.perform(get("/usuarios/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", UserQueryController.eTag(user, false)))
+                .andExpect(jsonPath("$.email").value("juan.perez@example.com"))
+                .andExpect(jsonPath("$.phones").doesNotExist())
+                .andExpect(jsonPath("$.password").doesNotExist())
+                .andExpect(jsonPath("$.token").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Debería incluir los teléfonos solo cuando se piden")
+    void shouldIncludePhonesWhenRequested() throws Exception {
+        UserDetailResponse withPhones = user.toBuilder().phones(ModelGenerator.generatePhoneDtos(2)).build();
+        Mockito.when(userQueryService.findByEmail(user.getEmail(), true)).thenReturn(Optional.of(withPhones));
+
+        mockMvc.perform(get("/usuarios").param("email", user.getEmail()).param("phones", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", UserQueryController.eTag(user, true)))
+                .andExpect(jsonPath("$.phones.length()").value(2))
+                .andExpect(jsonPath("$.phones[0].citycode").exists())
+                .andExpect(jsonPath("$.phones[0].contrycode").value("57"));
+    }
+
+    @Test
+    @DisplayName("Debería retornar 304 sin cuerpo si el ETag no cambió")
+    void shouldReturnNotModifiedForMatchingETag() throws Exception {
+        Mockito.when(userQueryService.findById(user.getId(), false)).thenReturn(Optional.of(user));
+
+        mockMvc.perform(get("/usuarios/{id}", user.getId())
+                        .header("If-None-Match", UserQueryController.eTag(user, false)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Debería retornar 404 si el usuario no existe")
+    void shouldReturnNotFoundForUnknownUser() throws Exception {
+        UUID id = UUID.randomUUID();
+        Mockito.when(userQueryService.findById(id, false)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/usuarios/{id}", id))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.mensaje").value("Usuario no encontrado"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.evaluacion.nisum.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserJsonTest {
+
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper handwritten = Jackson2ObjectMapperBuilder.json().modulesToInstall(UserJson.module()).build();
+
+    @Test
+    @DisplayName("Debería serializar UserResponse con los mismos bytes que el binding reflexivo")
+    void shouldWriteSameBytesAsReflectiveBinding() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            LocalDateTime time = LocalDateTime.of(random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), nanos(random));
+            UserResponse response = UserResponse.builder()
+                    .id(random.nextInt(10) == 0 ? null : new UUID(random.nextLong(), random.nextLong()))
+                    .created(time)
+                    .modified(time.plusNanos(random.nextInt(1_000)))
+                    .lastLogin(random.nextBoolean() ? null : time.withYear(2024))
+                    .token(random.nextBoolean() ? null : "tok\"en-ñ-" + i)
+                    .isActive(random.nextInt(3) == 0 ? null : random.nextBoolean())
+                    .build();
+
+            assertThat(handwritten.writeValueAsBytes(response)).isEqualTo(reflective.writeValueAsBytes(response));
+            assertThat(handwritten.writerWithDefaultPrettyPrinter().writeValueAsString(response))
+                    .isEqualTo(reflective.writerWithDefaultPrettyPrinter().writeValueAsString(response));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería serializar los teléfonos con citycode y contrycode")
+    void shouldWritePhonesLikeReflectiveBinding() throws Exception {
+        List<PhoneDto> phones = List.of(new PhoneDto("1234567", "1", "57"), new PhoneDto(null, "2", null));
+        UserDetailResponse user = UserDetailResponse.builder().id(UUID.randomUUID()).phones(phones).build();
+
+        assertThat(handwritten.writeValueAsString(user)).isEqualTo(reflective.writeValueAsString(user))
+                .contains("\"citycode\":\"1\",\"contrycode\":\"57\"");
+    }
+
+    @Test
+    @DisplayName("Debería leer UserRequest igual que el binding reflexivo")
+    void shouldReadLikeReflectiveBinding() throws Exception {
+        List<String> payloads = List.of(
+                """
+                        {"name":"Juan","email":"juan@rodriguez.org","password":"Hunter22",
+                         "phones":[{"number":"1234567","citycode":"1","contrycode":"57"}]}""",
+                """
+                        {"name":null,"extra":{"a":[1,{"b":2}]},"email":12,"password":true,
+                         "phones":[{"number":1234567,"citycode":1.5,"contrycode":"57","x":[1]},null]}""",
+                "{\"phones\":null}",
+                "{\"phones\":[]}",
+                "{}");
+        for (String payload : payloads) {
+            assertThat(handwritten.readValue(payload, UserRequest.class))
+                    .isEqualTo(reflective.readValue(payload, UserRequest.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería rechazar los mismos tipos inválidos que el binding reflexivo")
+    void shouldRejectMismatchedInput() {
+        for (String payload : List.of("{\"name\":[1]}", "{\"phones\":{}}", "{\"phones\":[1]}", "[1]")) {
+            assertThatThrownBy(() -> reflective.readValue(payload, UserRequest.class)).isInstanceOf(MismatchedInputException.class);
+            assertThatThrownBy(() -> handwritten.readValue(payload, UserRequest.class)).isInstanceOf(MismatchedInputException.class);
+        }
+    }
+
+    private static int nanos(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> 0;
+            case 1 -> random.nextInt(1_000) * 1_000_000;
+            case 2 -> random.nextInt(1_000_000) * 1_000;
+            default -> random.nextInt(1_000_000_000);
+        };
+    }
+}
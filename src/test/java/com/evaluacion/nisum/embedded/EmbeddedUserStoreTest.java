@@ -0,0 +1,128 @@
+package com.evaluacion.nisum.embedded;
+
+import com.evaluacion.nisum.config.EmbeddedStoreProperties;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.util.UserIdGenerator;
+import helper.ModelGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddedUserStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Debería rechazar un correo ya registrado")
+    void shouldRejectDuplicateEmail() throws Exception {
+        EmbeddedUserStore store = open(DataSize.ofMegabytes(1));
+        store.save(ModelGenerator.generateUser(1));
+
+        assertThatThrownBy(() -> store.save(ModelGenerator.generateUser(1))).isInstanceOf(DuplicateKeyException.class);
+        assertThat(store.count()).isEqualTo(1);
+        store.destroy();
+    }
+
+    @Test
+    @DisplayName("Debería guardar un lote completo o ninguno de sus usuarios")
+    void shouldSaveBatchAtomically() throws Exception {
+        EmbeddedUserStore store = open(DataSize.ofMegabytes(1));
+        store.save(ModelGenerator.generateUser(2));
+
+        List<User> batch = List.of(ModelGenerator.generateUser(3), ModelGenerator.generateUser(2));
+
+        assertThatThrownBy(() -> store.saveAll(batch)).isInstanceOf(DuplicateKeyException.class);
+        assertThat(store.existsByEmail("testuser3@example.com")).isFalse();
+        store.saveAll(List.of(ModelGenerator.generateUser(3)));
+        assertThat(store.findExistingEmails(List.of("testuser2@example.com", "testuser3@example.com", "otro@example.com")))
+                .containsExactlyInAnyOrder("testuser2@example.com", "testuser3@example.com");
+        store.destroy();
+    }
+
+    @Test
+    @DisplayName("Debería recuperar los usuarios desde la instantánea y el diario")
+    void shouldRecoverFromSnapshotAndJournal() throws Exception {
+        EmbeddedUserStore store = open(DataSize.ofKilobytes(16));
+        List<User> saved = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            saved.add(store.save(ModelGenerator.generateUser(i)));
+        }
+        store.destroy();
+        assertThat(files("snapshot-")).isNotEmpty();
+
+        EmbeddedUserStore recovered = open(DataSize.ofKilobytes(16));
+
+        assertThat(recovered.count()).isEqualTo(300);
+        for (User user : saved) {
+            User stored = recovered.findById(user.getId()).orElseThrow();
+            assertThat(stored.getEmail()).isEqualTo(user.getEmail());
+            assertThat(stored.getCreated()).isEqualTo(user.getCreated());
+            assertThat(stored.getPhones()).isEqualTo(user.getPhones());
+        }
+        assertThatThrownBy(() -> recovered.save(ModelGenerator.generateUser(299)))
+                .isInstanceOf(DuplicateKeyException.class);
+        recovered.destroy();
+    }
+
+    @Test
+    @DisplayName("Debería descartar un bloque incompleto al final del diario")
+    void shouldDiscardTornFrame() throws Exception {
+        EmbeddedUserStore store = open(DataSize.ofMegabytes(1));
+        store.save(ModelGenerator.generateUser(10));
+        store.save(ModelGenerator.generateUser(11));
+        store.destroy();
+
+        // Zero the second half of the last frame, as a crash in the middle of the copy would leave it.
+        Path segment = files("journal-").get(0);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int lastFrame = 0;
+        for (int position = 0; bytes.getInt(position) != 0; position += UserRecords.FRAME_HEADER + bytes.getInt(position)) {
+            lastFrame = position;
+        }
+        int half = (UserRecords.FRAME_HEADER + bytes.getInt(lastFrame)) / 2;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(half), lastFrame + half);
+        }
+
+        EmbeddedUserStore recovered = open(DataSize.ofMegabytes(1));
+        assertThat(recovered.existsByEmail("testuser10@example.com")).isTrue();
+        assertThat(recovered.existsByEmail("testuser11@example.com")).isFalse();
+        recovered.save(ModelGenerator.generateUser(11));
+        recovered.destroy();
+
+        EmbeddedUserStore reopened = open(DataSize.ofMegabytes(1));
+        assertThat(reopened.count()).isEqualTo(2);
+        reopened.destroy();
+    }
+
+    private EmbeddedUserStore open(DataSize snapshotThreshold) throws IOException {
+        EmbeddedStoreProperties properties = new EmbeddedStoreProperties();
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        properties.setSnapshotThreshold(snapshotThreshold);
+        return new EmbeddedUserStore(properties, UserIdGenerator.random(), new SimpleMeterRegistry());
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+}
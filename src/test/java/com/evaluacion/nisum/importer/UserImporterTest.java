@@ -0,0 +1,105 @@
+package com.evaluacion.nisum.importer;
+
+import com.evaluacion.nisum.exception.OverloadedException;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.security.PasswordHashingService;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {"password-hashing.cost=1000", "import.chunk-size=2"})
+class UserImporterTest {
+
+    @Autowired
+    private UserImporter userImporter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private PasswordHashingService passwordHashing;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Debería importar un archivo NDJSON y rechazar las líneas inválidas con su motivo")
+    void shouldImportNdjsonAndWriteRejects() throws Exception {
+        userRepository.save(ModelGenerator.generateUser(300));
+        Path file = directory.resolve("usuarios.ndjson");
+        Files.write(file, List.of(
+                "{\"name\":\"Uno\",\"email\":\"import1@example.com\",\"password\":\"Password123\",\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"contrycode\":\"57\"}]}",
+                "{\"name\":\"Malo\",\"email\":\"no-es-correo\",\"password\":\"Password123\"}",
+                "{\"name\":\"Repetido\",\"email\":\"import1@example.com\",\"password\":\"Password123\"}",
+                "{\"name\":\"Existente\",\"email\":\"testuser300@example.com\",\"password\":\"Password123\"}",
+                "esto no es json",
+                "{\"name\":\"Dos\",\"email\":\"import2@example.com\",\"password\":\"Password123\"}"));
+
+        UserImporter.Result result = userImporter.importFile(file);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(4);
+        User imported = userRepository.findWithPhonesByEmail("import1@example.com").orElseThrow();
+        assertThat(imported.getPassword()).startsWith("pbkdf2-sha256$");
+        assertThat(imported.getToken()).isNotEmpty();
+        assertThat(imported.getPhones()).hasSize(1);
+        assertThat(userRepository.existsByEmail("import2@example.com")).isTrue();
+
+        List<String> rejects = Files.readAllLines(directory.resolve("usuarios.ndjson.rejects"));
+        assertThat(rejects).hasSize(4);
+        assertThat(rejects.get(0)).startsWith("2\tFormato de correo inválido\t");
+        assertThat(rejects.get(1)).startsWith("3\tEl correo ya está registrado\t");
+        assertThat(rejects.get(2)).startsWith("4\tEl correo ya está registrado\t");
+        assertThat(rejects.get(3)).startsWith("5\tLínea con formato inválido");
+    }
+
+    @Test
+    @DisplayName("Debería reanudar desde el último bloque confirmado")
+    void shouldResumeFromCheckpoint() throws Exception {
+        Path file = directory.resolve("usuarios.csv");
+        Files.write(file, List.of(
+                "name,email,password,phones",
+                "Uno,resume1@example.com,Password123,1234567:1:57|7654321:2:57",
+                "\"Dos, con coma\",resume2@example.com,Password123,"));
+
+        assertThat(userImporter.importFile(file).imported()).isEqualTo(2);
+        assertThat(userRepository.findWithPhonesByEmail("resume1@example.com").orElseThrow().getPhones()).hasSize(2);
+        assertThat(userRepository.findByEmail("resume2@example.com").orElseThrow().getName()).isEqualTo("Dos, con coma");
+
+        Files.write(file, List.of("Tres,resume3@example.com,Password123,"), StandardOpenOption.APPEND);
+        UserImporter.Result resumed = userImporter.importFile(file);
+
+        assertThat(resumed.imported()).isEqualTo(1);
+        assertThat(resumed.rejected()).isZero();
+        assertThat(userRepository.existsByEmail("resume3@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debería reintentar el hash cuando el pool de hashing está saturado en lugar de abortar")
+    void shouldRetryWhenHashingIsOverloaded() throws Exception {
+        doThrow(new OverloadedException()).doThrow(new OverloadedException()).doCallRealMethod()
+                .when(passwordHashing).hash(anyString());
+        Path file = directory.resolve("saturado.ndjson");
+        Files.write(file, List.of("{\"name\":\"Uno\",\"email\":\"saturado1@example.com\",\"password\":\"Password123\"}"));
+
+        UserImporter.Result result = userImporter.importFile(file);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.rejected()).isZero();
+        assertThat(userRepository.existsByEmail("saturado1@example.com")).isTrue();
+    }
+}
@@ -0,0 +1,265 @@
+package com.evaluacion.nisum.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import helper.ModelGenerator;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-loop load generator for {@code POST /registro} against the real application on the H2
+ * {@code dev} profile.
+ * <p>
+ * Requests are scheduled at a fixed arrival rate and each latency is measured from the time the
+ * request <em>should</em> have been sent, so a stalled server shows up in the percentiles instead
+ * of silently slowing the generator down (coordinated omission). Every request runs on its own
+ * virtual thread, so the number of requests in flight is not capped by the client.
+ * <p>
+ * Run with {@code ./gradlew loadTest}, optionally overriding {@code -Pload.rate=1000},
+ * {@code -Pload.duration=60}, {@code -Pload.warmup=10} and {@code -Pload.mix=80,10,10}
+ * (valid, invalid, duplicate). Results are printed and written to {@code build/reports/load}.
+ */
+@Tag("load")
+@ActiveProfiles("dev")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.root=WARN"})
+class RegistrationLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int DUPLICATE_SEEDS = 100;
+
+    private final int rate = Integer.getInteger("load.rate", 500);
+    private final int durationSeconds = Integer.getInteger("load.duration", 30);
+    private final int warmupSeconds = Integer.getInteger("load.warmup", 5);
+    private final Mix mix = Mix.parse(System.getProperty("load.mix", "80,10,10"));
+
+    private final AtomicLong emailSequence = new AtomicLong();
+    private final List<String> seededEmails = new ArrayList<>();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void registrationUnderFixedArrivalRate() throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/registro");
+        seedDuplicates(uri);
+
+        run(uri, warmupSeconds);
+        Result result = run(uri, durationSeconds);
+
+        String report = result.report();
+        System.out.print(report);
+        Path reports = Path.of("build", "reports", "load");
+        Files.createDirectories(reports);
+        Files.writeString(reports.resolve("registration-" + rate + "rps.txt"), report);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(reports.resolve("registration-" + rate + "rps.hgrm")))) {
+            result.histogram().outputPercentileDistribution(out, 1_000_000.0);
+        }
+
+        assertThat(result.sent()).isPositive();
+    }
+
+    private void seedDuplicates(URI uri) throws IOException, InterruptedException {
+        for (int i = 0; i < DUPLICATE_SEEDS; i++) {
+            String email = nextEmail();
+            HttpResponse<Void> response = client.send(request(uri, ModelGenerator.generateUserRequest(email)),
+                    HttpResponse.BodyHandlers.discarding());
+            assertThat(response.statusCode()).isEqualTo(201);
+            seededEmails.add(email);
+        }
+    }
+
+    private Result run(URI uri, int seconds) throws InterruptedException {
+        long total = (long) rate * seconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        Result result = new Result(rate, seconds);
+        SplittableRandom random = new SplittableRandom(42);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * intervalNanos;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Kind kind = mix.pick(random);
+                HttpRequest request = request(uri, payload(kind, random));
+                executor.submit(() -> send(request, kind, intended, result));
+            }
+        }
+        result.finish(System.nanoTime() - start);
+        return result;
+    }
+
+    private void send(HttpRequest request, Kind kind, long intendedNanos, Result result) {
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = -1;
+        }
+        result.record(kind, status, System.nanoTime() - intendedNanos);
+    }
+
+    private Object payload(Kind kind, SplittableRandom random) {
+        return switch (kind) {
+            case VALID -> ModelGenerator.generateUserRequest(nextEmail());
+            case INVALID -> {
+                var userRequest = ModelGenerator.generateUserRequest(nextEmail());
+                if (random.nextBoolean()) {
+                    userRequest.setEmail("correo-invalido");
+                } else {
+                    userRequest.setPassword("password");
+                }
+                yield userRequest;
+            }
+            case DUPLICATE -> ModelGenerator.generateUserRequest(seededEmails.get(random.nextInt(seededEmails.size())));
+        };
+    }
+
+    private HttpRequest request(URI uri, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String nextEmail() {
+        return "load" + emailSequence.incrementAndGet() + "@example.com";
+    }
+
+    private enum Kind {
+        VALID(201), INVALID(400), DUPLICATE(409);
+
+        private final int expectedStatus;
+
+        Kind(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    private record Mix(int valid, int invalid, int duplicate) {
+
+        static Mix parse(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("load.mix debe tener la forma valid,invalid,duplicate: " + value);
+            }
+            return new Mix(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim()));
+        }
+
+        Kind pick(SplittableRandom random) {
+            int roll = random.nextInt(valid + invalid + duplicate);
+            if (roll < valid) {
+                return Kind.VALID;
+            }
+            return roll < valid + invalid ? Kind.INVALID : Kind.DUPLICATE;
+        }
+    }
+
+    private static final class Result {
+
+        private final int rate;
+        private final int seconds;
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Map<Kind, Map<Integer, LongAdder>> statuses = new EnumMap<>(Kind.class);
+        private long elapsedNanos;
+
+        Result(int rate, int seconds) {
+            this.rate = rate;
+            this.seconds = seconds;
+            for (Kind kind : Kind.values()) {
+                statuses.put(kind, new ConcurrentHashMap<>());
+            }
+        }
+
+        void record(Kind kind, int status, long latencyNanos) {
+            histogram.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+            statuses.get(kind).computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        void finish(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        Histogram histogram() {
+            return histogram;
+        }
+
+        long sent() {
+            return histogram.getTotalCount();
+        }
+
+        String report() {
+            StringBuilder report = new StringBuilder(String.format(
+                    "Target %d req/s for %d s: sent %d, achieved %.0f req/s%n"
+                            + "Latency (ms, from intended send time): p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                    rate, seconds, sent(), sent() / (elapsedNanos / 1e9),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue())));
+            statuses.forEach((kind, counts) -> {
+                Map<Integer, Long> sorted = new TreeMap<>();
+                counts.forEach((status, count) -> sorted.put(status, count.sum()));
+                long unexpected = sorted.entrySet().stream()
+                        .filter(e -> e.getKey() != kind.expectedStatus)
+                        .mapToLong(Map.Entry::getValue)
+                        .sum();
+                report.append(String.format("  %-9s expected %d, statuses %s (-1 = I/O error), unexpected %d%n",
+                        kind, kind.expectedStatus, sorted, unexpected));
+            });
+            return report.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
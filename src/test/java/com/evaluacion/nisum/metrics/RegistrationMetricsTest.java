@@ -0,0 +1,100 @@
+package com.evaluacion.nisum.metrics;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.service.UserService;
+import helper.ModelGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class RegistrationMetricsTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Debería medir cada fase del registro y contar el resultado")
+    void shouldTimeEveryPhaseAndCountOutcome() {
+        double createdBefore = meterRegistry.counter("registration.outcome", "status", "201").count();
+
+        userService.registerUser(UserRequest.builder()
+                .name("Metricas")
+                .email("metricas@example.com")
+                .password("Password123")
+                .phones(ModelGenerator.generatePhoneDtos(1))
+                .build());
+
+        for (String phase : new String[]{"email_validation", "password_validation", "find_by_email",
+                "generate_token", "save", "response_mapping"}) {
+            assertThat(meterRegistry.get("registration.phase").tag("phase", phase).timer().count())
+                    .as("fase %s", phase)
+                    .isPositive();
+        }
+        assertThat(meterRegistry.counter("registration.outcome", "status", "201").count())
+                .isEqualTo(createdBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Debería contar solo los errores de los endpoints de registro")
+    void shouldCountOnlyRegistrationErrors() throws Exception {
+        double badRequestBefore = meterRegistry.counter("registration.outcome", "status", "400").count();
+        double unauthorizedBefore = meterRegistry.counter("registration.outcome", "status", "401").count();
+
+        mockMvc.perform(post("/registro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Metricas\",\"email\":\"no-es-un-correo\",\"password\":\"Password123\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/login").header(HttpHeaders.AUTHORIZATION, "Bearer no-es-un-token"))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(meterRegistry.counter("registration.outcome", "status", "400").count())
+                .isEqualTo(badRequestBefore + 1);
+        assertThat(meterRegistry.counter("registration.outcome", "status", "401").count())
+                .isEqualTo(unauthorizedBefore);
+    }
+
+    @Test
+    @DisplayName("Debería contar el resultado de cada entrada de un registro masivo")
+    void shouldCountEveryBulkEntry() {
+        double createdBefore = meterRegistry.counter("registration.outcome", "status", "201").count();
+        double badRequestBefore = meterRegistry.counter("registration.outcome", "status", "400").count();
+
+        userService.registerUsers(List.of(
+                ModelGenerator.generateUserRequest("metricas.lote1@example.com"),
+                ModelGenerator.generateUserRequest("metricas.lote2@example.com"),
+                ModelGenerator.generateUserRequest("no-es-un-correo")));
+
+        assertThat(meterRegistry.counter("registration.outcome", "status", "201").count())
+                .isEqualTo(createdBefore + 2);
+        assertThat(meterRegistry.counter("registration.outcome", "status", "400").count())
+                .isEqualTo(badRequestBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Debería exponer las métricas del índice de correos")
+    void shouldExposeEmailIndexGauges() {
+        assertThat(meterRegistry.get("email.index.memory").gauge().value()).isPositive();
+    }
+}
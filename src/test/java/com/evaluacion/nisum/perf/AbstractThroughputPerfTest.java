@@ -0,0 +1,161 @@
+package com.evaluacion.nisum.perf;
+
+import com.evaluacion.nisum.repository.UserStore;
+import com.evaluacion.nisum.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures requests/sec and latency percentiles of {@code POST /registro} under high client
+ * concurrency. Persistence is slowed down by {@code perf.persistence-latency-ms} so the run is
+ * dominated by blocking waits, which is where the servlet thread pool becomes the ceiling.
+ * <p>
+ * Run with {@code ./gradlew perfTest}; results are printed and written to {@code build/reports/perf}.
+ */
+@Tag("perf")
+abstract class AbstractThroughputPerfTest {
+
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 1_000;
+
+    private static final AtomicLong EMAIL_SEQUENCE = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void registrationThroughput() throws Exception {
+        run(WARMUP_REQUESTS);
+        Result result = run(REQUESTS);
+
+        String report = String.format("%s: %d requests, concurrency %d, %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, errors %d%n",
+                getClass().getSimpleName(), REQUESTS, CONCURRENCY, result.requestsPerSecond(),
+                result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(100), result.errors());
+        System.out.print(report);
+        Path reports = Path.of("build", "reports", "perf");
+        Files.createDirectories(reports);
+        Files.writeString(reports.resolve(getClass().getSimpleName() + ".txt"), report);
+    }
+
+    private Result run(int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        URI uri = URI.create("http://localhost:" + port + "/registro");
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                permits.acquire();
+                int index = i;
+                executor.submit(() -> {
+                    try {
+                        latencies[index] = send(uri, errors);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(latencies);
+        return new Result(latencies, requests / (elapsed / 1e9), errors.get());
+    }
+
+    private long send(URI uri, AtomicInteger errors) {
+        String body = """
+                {"name":"Perf","email":"perf%d@example.com","password":"Password123",\
+                "phones":[{"number":"1234567","citycode":"1","contrycode":"57"}]}"""
+                .formatted(EMAIL_SEQUENCE.incrementAndGet());
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long started = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 201) {
+                errors.incrementAndGet();
+            }
+        } catch (IOException | InterruptedException e) {
+            errors.incrementAndGet();
+        }
+        return System.nanoTime() - started;
+    }
+
+    private record Result(long[] sortedLatencies, double requestsPerSecond, int errors) {
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e6;
+        }
+    }
+
+    /**
+     * Delays every write of the real {@link UserStore}, standing in for a slow database. The store
+     * is wrapped rather than the {@link UserService}, so the registration service chain (and any
+     * {@code @Primary} decorator such as the concurrency limiter) stays as in production.
+     */
+    @TestConfiguration
+    static class SlowPersistenceConfig {
+
+        @Bean
+        static BeanPostProcessor slowUserStore(@Value("${perf.persistence-latency-ms:20}") long latencyMillis) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof UserStore store)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(UserStore.class.getClassLoader(), new Class<?>[]{UserStore.class},
+                            (proxy, method, args) -> {
+                                if (method.getName().startsWith("save")) {
+                                    sleep(latencyMillis);
+                                }
+                                try {
+                                    return method.invoke(store, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            });
+                }
+            };
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.evaluacion.nisum.perf;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=false", "server.tomcat.threads.max=200",
+                "password-hashing.cost=1000"})
+@Import(AbstractThroughputPerfTest.SlowPersistenceConfig.class)
+class PlatformThreadsThroughputPerfTest extends AbstractThroughputPerfTest {
+}
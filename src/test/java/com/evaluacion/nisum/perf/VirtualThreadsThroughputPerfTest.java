@@ -0,0 +1,10 @@
+package com.evaluacion.nisum.perf;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "password-hashing.cost=1000"})
+@Import(AbstractThroughputPerfTest.SlowPersistenceConfig.class)
+class VirtualThreadsThroughputPerfTest extends AbstractThroughputPerfTest {
+}
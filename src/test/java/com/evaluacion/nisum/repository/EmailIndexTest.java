@@ -0,0 +1,45 @@
+package com.evaluacion.nisum.repository;
+
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+public class EmailIndexTest {
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Debería descartar sin consultar la base de datos un correo nunca registrado")
+    void shouldRuleOutUnknownEmail() {
+        assertThat(emailIndex.isReady()).isTrue();
+        assertThat(emailIndex.mightContain("nunca.registrado@example.com")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debería incluir los correos de usuarios guardados directamente en el repositorio")
+    void shouldIncludeEmailsSavedThroughRepository() {
+        userRepository.save(ModelGenerator.generateUser(42));
+
+        assertThat(emailIndex.mightContain(ModelGenerator.generateUser(42).getEmail())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debería informar su tamaño en memoria")
+    void shouldReportMemoryFootprint() {
+        EmailIndex.Stats stats = emailIndex.stats();
+
+        assertThat(stats.memoryBytes()).isPositive();
+        assertThat(stats.hashFunctions()).isPositive();
+    }
+}
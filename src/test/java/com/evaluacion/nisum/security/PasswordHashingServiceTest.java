@@ -0,0 +1,182 @@
+package com.evaluacion.nisum.security;
+
+import com.evaluacion.nisum.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.destroy();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 503 cuando la cola de hashing está llena")
+    void shouldRejectWhenQueueIsFull() {
+        service = new PasswordHashingService(new BlockingHasher(release), properties(1, 1), meterRegistry);
+
+        CompletableFuture<String> running = service.hashAsync("Password123");
+        CompletableFuture<String> queued = service.hashAsync("Password123");
+
+        assertThatThrownBy(() -> service.hash("Password123"))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(meterRegistry.counter("password.hash.rejected").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.join()).isEqualTo("hash:Password123");
+        assertThat(queued.join()).isEqualTo("hash:Password123");
+        assertThat(meterRegistry.timer("password.hash.duration").count()).isEqualTo(2);
+        assertThat(meterRegistry.timer("password.hash.queue.wait").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debería responder 503 a todos los que no caben, sin esperar al hash en curso")
+    void shouldShedCallersBeyondQueueWithoutWaitingForRunningHash() throws Exception {
+        PasswordHashingProperties properties = properties(1, 2);
+        properties.setMaxQueueWait(Duration.ofMillis(300));
+        service = new PasswordHashingService(new BlockingHasher(release), properties, meterRegistry);
+
+        CompletableFuture<String> running = service.hashAsync("Password123");
+        while (meterRegistry.timer("password.hash.queue.wait").count() == 0) {
+            Thread.sleep(1);
+        }
+
+        int callers = 6;
+        CyclicBarrier start = new CyclicBarrier(callers);
+        ExecutorService requestThreads = Executors.newFixedThreadPool(callers);
+        try {
+            List<CompletableFuture<Integer>> statuses = IntStream.range(0, callers)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        await(start);
+                        return status(() -> service.hash("Password123"));
+                    }, requestThreads))
+                    .toList();
+
+            // The running hash is still blocked: every caller must have been answered without it
+            for (CompletableFuture<Integer> status : statuses) {
+                assertThat(status.get(5, TimeUnit.SECONDS)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+            }
+        } finally {
+            requestThreads.shutdownNow();
+        }
+        assertThat(running).isNotDone();
+        assertThat(meterRegistry.counter("password.hash.rejected").count()).isEqualTo(callers - 2);
+        assertThat(meterRegistry.counter("password.hash.queue.timeouts").count()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hash.queue.depth").gauge().value()).isZero();
+
+        release.countDown();
+        assertThat(running.join()).isEqualTo("hash:Password123");
+        assertThat(meterRegistry.timer("password.hash.duration").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debería hashear un lote mayor que la cola sin rechazos ni esperas vencidas")
+    void shouldHashBatchLargerThanQueue() {
+        PasswordHashingProperties properties = properties(1, 1);
+        properties.setMaxQueueWait(Duration.ofNanos(1));
+        service = new PasswordHashingService(new Pbkdf2PasswordHasher(1), properties, meterRegistry);
+
+        List<String> passwords = IntStream.range(0, 20).mapToObj(i -> "Password" + i).toList();
+        List<String> hashes = service.hashAll(passwords).stream().map(CompletableFuture::join).toList();
+
+        assertThat(hashes).hasSize(20).allMatch(hash -> hash.startsWith("pbkdf2-sha256$1$"));
+        assertThat(meterRegistry.counter("password.hash.rejected").count()).isZero();
+        assertThat(meterRegistry.counter("password.hash.queue.timeouts").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debería usar el costo configurado sin calibrar")
+    void shouldUseConfiguredCost() {
+        PasswordHashingProperties properties = properties(1, 10);
+        properties.setCost(1_234);
+        service = new PasswordHashingService(new Pbkdf2PasswordHasher(1), properties, meterRegistry);
+
+        assertThat(service.hash("Password123")).startsWith("pbkdf2-sha256$1234$");
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int status(Runnable call) {
+        try {
+            call.run();
+            return HttpStatus.OK.value();
+        } catch (ResponseStatusException e) {
+            return e.getStatusCode().value();
+        }
+    }
+
+    private static PasswordHashingProperties properties(int threads, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setCost(1);
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        return properties;
+    }
+
+    /**
+     * Holds every hash until released, so the pool and its queue can be filled deterministically.
+     */
+    private record BlockingHasher(CountDownLatch release) implements PasswordHasher {
+
+        @Override
+        public String hash(CharSequence password) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + password;
+        }
+
+        @Override
+        public boolean matches(CharSequence password, String encoded) {
+            return encoded.equals("hash:" + password);
+        }
+
+        @Override
+        public int cost() {
+            return 1;
+        }
+
+        @Override
+        public PasswordHasher withCost(int cost) {
+            return this;
+        }
+
+        @Override
+        public PasswordHasher calibrated(Duration targetLatency) {
+            return this;
+        }
+    }
+}
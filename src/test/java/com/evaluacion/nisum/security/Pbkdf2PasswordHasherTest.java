@@ -0,0 +1,55 @@
+package com.evaluacion.nisum.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Pbkdf2PasswordHasherTest {
+
+    private final PasswordHasher hasher = new Pbkdf2PasswordHasher(1_000);
+
+    @Test
+    @DisplayName("Debería verificar la contraseña con la que se generó el hash")
+    void shouldMatchOriginalPassword() {
+        String encoded = hasher.hash("Password123");
+
+        assertThat(encoded).startsWith("pbkdf2-sha256$1000$").doesNotContain("Password123");
+        assertThat(hasher.matches("Password123", encoded)).isTrue();
+        assertThat(hasher.matches("Password124", encoded)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debería usar una sal distinta en cada hash")
+    void shouldSaltEveryHash() {
+        assertThat(hasher.hash("Password123")).isNotEqualTo(hasher.hash("Password123"));
+    }
+
+    @Test
+    @DisplayName("Debería verificar hashes generados con otro costo")
+    void shouldMatchHashesFromAnotherCost() {
+        String encoded = hasher.hash("Password123");
+
+        assertThat(hasher.withCost(2_000).matches("Password123", encoded)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar hashes con formato inválido")
+    void shouldRejectMalformedHashes() {
+        assertThat(hasher.matches("Password123", null)).isFalse();
+        assertThat(hasher.matches("Password123", "Password123")).isFalse();
+        assertThat(hasher.matches("Password123", "pbkdf2-sha256$x$AAAA$AAAA")).isFalse();
+        assertThat(hasher.matches("Password123", "bcrypt$1000$AAAA$AAAA")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debería calibrar el costo según la latencia objetivo")
+    void shouldCalibrateCost() {
+        PasswordHasher calibrated = hasher.calibrated(Duration.ofMillis(50));
+
+        assertThat(calibrated.cost()).isGreaterThanOrEqualTo(10_000);
+        assertThat(calibrated.matches("Password123", calibrated.hash("Password123"))).isTrue();
+    }
+}
@@ -0,0 +1,41 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.BulkRegistrationResult;
+import com.evaluacion.nisum.dto.UserRequest;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "password-hashing.cost=1000",
+        "password-hashing.threads=1",
+        "password-hashing.queue-capacity=4",
+        "password-hashing.max-queue-wait=1ms"
+})
+class BulkRegistrationHashingTest {
+
+    private static final int ENTRIES = 50;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    @DisplayName("Debería registrar un lote mayor que la cola de hashing sin rechazar entradas válidas")
+    void shouldRegisterBatchLargerThanHashingQueue() {
+        List<UserRequest> userRequests = IntStream.range(0, ENTRIES)
+                .mapToObj(i -> ModelGenerator.generateUserRequest("lote" + i + "@example.com"))
+                .toList();
+
+        List<BulkRegistrationResult> results = userService.registerUsers(userRequests);
+
+        assertThat(results).hasSize(ENTRIES);
+        assertThat(results).extracting(BulkRegistrationResult::getStatus).containsOnly(201);
+    }
+}
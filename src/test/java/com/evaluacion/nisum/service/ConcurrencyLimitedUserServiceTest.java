@@ -0,0 +1,131 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.exception.OverloadedException;
+import com.evaluacion.nisum.exception.ValidationException;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import helper.ModelGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+
+@SpringBootTest(properties = {
+        "password-hashing.cost=1000",
+        "registration.concurrency-limit.enabled=true",
+        "registration.concurrency-limit.initial-limit=20"
+})
+class ConcurrencyLimitedUserServiceTest {
+
+    private static final int THREADS = 32;
+    private static final long STALL_MILLIS = 20;
+    private static final int MIN_LIMIT = 2;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Debería acotar el p99 y rechazar con 503 cuando la persistencia se vuelve lenta")
+    void shouldBoundLatencyWhenPersistenceStalls() throws Exception {
+        assertThat(userService).isInstanceOf(ConcurrencyLimitedUserService.class);
+        AtomicInteger sequence = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            userService.registerUser(ModelGenerator.generateUserRequest("limite" + sequence.incrementAndGet() + "@example.com"));
+        }
+
+        // From here on every insert waits its turn and then takes STALL_MILLIS, like a stalled disk.
+        ReentrantLock disk = new ReentrantLock(true);
+        Mockito.doAnswer(invocation -> {
+            disk.lock();
+            try {
+                Thread.sleep(STALL_MILLIS);
+                return invocation.callRealMethod();
+            } finally {
+                disk.unlock();
+            }
+        }).when(userRepository).save(any(User.class));
+
+        Histogram accepted = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(30), 3);
+        AtomicLong rejected = new AtomicLong();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(2);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    try {
+                        userService.registerUser(ModelGenerator.generateUserRequest("limite" + sequence.incrementAndGet() + "@example.com"));
+                        if (start >= measureFrom) {
+                            accepted.recordValue(System.nanoTime() - start);
+                        }
+                    } catch (OverloadedException e) {
+                        rejected.incrementAndGet();
+                        Thread.sleep(5);
+                    }
+                }
+                return null;
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Without the limit all THREADS requests queue on the disk: about THREADS * STALL_MILLIS.
+        long p99Millis = TimeUnit.NANOSECONDS.toMillis(accepted.getValueAtPercentile(99));
+        assertThat(accepted.getTotalCount()).isPositive();
+        assertThat(p99Millis).isLessThan(THREADS * STALL_MILLIS / 2);
+        assertThat(rejected.get()).isPositive();
+        assertThat(meterRegistry.get("registration.concurrency.rejected").counter().count()).isEqualTo(rejected.get());
+        assertThat(meterRegistry.get("registration.concurrency.limit").gauge().value()).isLessThan(20);
+    }
+
+    @Test
+    @DisplayName("Debería bajar el límite cuando la persistencia falla tras atascarse, pero no por errores de validación")
+    void shouldCutLimitOnServerFailuresOnly() {
+        double before = limit();
+        assertThatThrownBy(() -> userService.registerUser(ModelGenerator.generateUserRequest("no-es-un-correo")))
+                .isInstanceOf(ValidationException.class);
+        assertThat(limit()).isEqualTo(before);
+
+        // Every insert stalls and then times out, as a hung database would.
+        Mockito.doAnswer(invocation -> {
+            Thread.sleep(STALL_MILLIS);
+            throw new QueryTimeoutException("Tiempo de espera de la consulta agotado");
+        }).when(userRepository).save(any(User.class));
+
+        for (int i = 0; i < 50; i++) {
+            assertThatThrownBy(() -> userService.registerUser(ModelGenerator.generateUserRequest("caida" + System.nanoTime() + "@example.com")))
+                    .isInstanceOf(QueryTimeoutException.class);
+        }
+
+        assertThat(limit()).isEqualTo(MIN_LIMIT);
+        assertThat(meterRegistry.get("registration.concurrency.inflight").gauge().value()).isZero();
+    }
+
+    private double limit() {
+        return meterRegistry.get("registration.concurrency.limit").gauge().value();
+    }
+}
@@ -0,0 +1,144 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.config.IdempotencyProperties;
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ConflictException;
+import com.evaluacion.nisum.exception.OverloadedException;
+import helper.ModelGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotencyCache cache = new IdempotencyCache(new IdempotencyProperties(), meterRegistry);
+    private final AtomicInteger registrations = new AtomicInteger();
+
+    @Test
+    @DisplayName("Debería repetir la respuesta original sin registrar de nuevo")
+    void shouldReplayStoredResponse() {
+        UserRequest userRequest = ModelGenerator.generateUserRequest("idem@example.com");
+
+        IdempotencyCache.Result first = cache.execute("clave-1", userRequest, register());
+        IdempotencyCache.Result second = cache.execute("clave-1", userRequest, register());
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.response()).isSameAs(first.response());
+        assertThat(registrations).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "idempotency").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debería ejecutar una sola vez las solicitudes simultáneas con la misma clave")
+    void shouldCollapseConcurrentRequests() throws Exception {
+        UserRequest userRequest = ModelGenerator.generateUserRequest("simultaneo@example.com");
+        int threads = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<IdempotencyCache.Result>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cache.execute("clave-2", userRequest, () -> {
+                    await(release);
+                    return register().get();
+                })));
+            }
+            // Let the other requests reach the cache while the first one is still running.
+            Thread.sleep(200);
+            release.countDown();
+
+            UUID id = results.get(0).get(10, TimeUnit.SECONDS).response().getId();
+            for (Future<IdempotencyCache.Result> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).response().getId()).isEqualTo(id);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double collapsed = meterRegistry.get("idempotency.collapsed").counter().count();
+        double hits = meterRegistry.get("cache.gets").tag("cache", "idempotency").tag("result", "hit")
+                .functionCounter().count();
+        assertThat(registrations).hasValue(1);
+        assertThat(collapsed).isPositive();
+        assertThat(collapsed + hits).isEqualTo(threads - 1);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 422 una clave reutilizada con otra solicitud")
+    void shouldRejectKeyReusedWithAnotherBody() {
+        cache.execute("clave-3", ModelGenerator.generateUserRequest("uno@example.com"), register());
+
+        assertThatThrownBy(() -> cache.execute("clave-3", ModelGenerator.generateUserRequest("otro@example.com"), register()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(registrations).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Debería repetir los errores 4xx pero volver a ejecutar tras un 5xx")
+    void shouldStoreClientErrorsOnly() {
+        UserRequest userRequest = ModelGenerator.generateUserRequest("error@example.com");
+        Supplier<UserResponse> conflict = () -> {
+            registrations.incrementAndGet();
+            throw ConflictException.EMAIL_ALREADY_REGISTERED;
+        };
+        Supplier<UserResponse> overloaded = () -> {
+            registrations.incrementAndGet();
+            throw new OverloadedException();
+        };
+
+        assertThatThrownBy(() -> cache.execute("clave-4", userRequest, conflict)).isSameAs(ConflictException.EMAIL_ALREADY_REGISTERED);
+        assertThatThrownBy(() -> cache.execute("clave-4", userRequest, conflict))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                    assertThat(e.getReason()).isEqualTo("El correo ya está registrado");
+                });
+        assertThat(registrations).hasValue(1);
+
+        assertThatThrownBy(() -> cache.execute("clave-5", userRequest, overloaded)).isInstanceOf(OverloadedException.class);
+        assertThatThrownBy(() -> cache.execute("clave-5", userRequest, overloaded)).isInstanceOf(OverloadedException.class);
+        assertThat(registrations).hasValue(3);
+    }
+
+    private Supplier<UserResponse> register() {
+        return () -> {
+            registrations.incrementAndGet();
+            return UserResponse.builder()
+                    .id(UUID.randomUUID())
+                    .created(LocalDateTime.now())
+                    .modified(LocalDateTime.now())
+                    .lastLogin(LocalDateTime.now())
+                    .token("jwt-token")
+                    .isActive(true)
+                    .build();
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.util.JwtUtil;
+import helper.ModelGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"password-hashing.cost=1000", "login.flush-interval=1h"})
+class LoginServiceTest {
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    @DisplayName("Debería verificar el token una sola vez y servir los siguientes accesos desde la caché")
+    void shouldCacheVerifiedTokens() {
+        UserResponse registered = userService.registerUser(ModelGenerator.generateUserRequest("login.cache@example.com"));
+        double hitsBefore = cacheGets("hit");
+        double missesBefore = cacheGets("miss");
+
+        UserDetailResponse first = loginService.login(registered.getToken());
+        UserDetailResponse second = loginService.login(registered.getToken());
+
+        assertThat(first.getId()).isEqualTo(registered.getId());
+        assertThat(second.getId()).isEqualTo(registered.getId());
+        assertThat(cacheGets("miss") - missesBefore).isEqualTo(1);
+        assertThat(cacheGets("hit") - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debería escribir solo el último acceso de cada usuario al vaciar")
+    void shouldCoalesceLastLoginUpdates() {
+        UserResponse registered = userService.registerUser(ModelGenerator.generateUserRequest("login.flush@example.com"));
+        lastLoginRecorder.flush();
+        double flushedBefore = meterRegistry.get("login.last-login.flush.size").summary().totalAmount();
+
+        loginService.login(registered.getToken());
+        loginService.login(registered.getToken());
+        UserDetailResponse last = loginService.login(registered.getToken());
+
+        User beforeFlush = userRepository.findById(registered.getId()).orElseThrow();
+        assertThat(beforeFlush.getLastLogin()).isBefore(last.getLastLogin());
+
+        lastLoginRecorder.flush();
+
+        User stored = userRepository.findById(registered.getId()).orElseThrow();
+        assertThat(stored.getLastLogin()).isEqualTo(last.getLastLogin().truncatedTo(ChronoUnit.MICROS));
+        assertThat(stored.getModified()).isEqualTo(beforeFlush.getModified());
+        assertThat(meterRegistry.get("login.last-login.flush.size").summary().totalAmount() - flushedBefore)
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 401 un token inválido o de otro emisor")
+    void shouldRejectInvalidToken() {
+        UserResponse registered = userService.registerUser(ModelGenerator.generateUserRequest("login.invalid@example.com"));
+        String tampered = registered.getToken().substring(0, registered.getToken().length() - 2) + "xx";
+
+        assertThatThrownBy(() -> loginService.login(tampered))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThatThrownBy(() -> loginService.login("no-es-un-token"))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    @DisplayName("Debería distinguir a dos usuarios con el mismo nombre registrados en el mismo segundo")
+    void shouldTellApartSameNameUsers() {
+        UserResponse first = userService.registerUser(ModelGenerator.generateUserRequest("login.mismo1@example.com"));
+        UserResponse second = userService.registerUser(ModelGenerator.generateUserRequest("login.mismo2@example.com"));
+
+        assertThat(second.getToken()).isNotEqualTo(first.getToken());
+        assertThat(loginService.login(first.getToken()).getId()).isEqualTo(first.getId());
+        assertThat(loginService.login(second.getToken()).getId()).isEqualTo(second.getId());
+    }
+
+    @Test
+    @DisplayName("Debería registrar e iniciar sesión con un nombre de 255 caracteres de varios bytes")
+    void shouldRegisterLongMultiByteName() {
+        UserRequest userRequest = ModelGenerator.generateUserRequest("login.nombre.largo@example.com");
+        userRequest.setName("€".repeat(255));
+
+        UserResponse registered = userService.registerUser(userRequest);
+
+        assertThat(registered.getToken().length()).isGreaterThan(255);
+        assertThat(loginService.login(registered.getToken()).getId()).isEqualTo(registered.getId());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 401 un token que pertenece a más de un usuario")
+    void shouldRejectAmbiguousToken() {
+        // Tokens issued without a jti: same name, same expiration second, same bytes.
+        String token = jwtUtil.generateTokenWithBuilder("Test User", null, new Date(System.currentTimeMillis() + 60_000));
+        for (int index : new int[]{900, 901}) {
+            User user = ModelGenerator.generateUser(index);
+            user.setToken(token);
+            userRepository.save(user);
+        }
+
+        assertThatThrownBy(() -> loginService.login(token))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "verified-tokens").tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,78 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.exception.ValidationException;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+public class ReactiveUserServiceTest {
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @Test
+    @DisplayName("Debería registrar un usuario con sus teléfonos usando R2DBC")
+    void shouldRegisterUserSuccessfully() {
+        UserRequest userRequest = UserRequest.builder()
+                .name("Reactivo")
+                .email("reactivo@example.com")
+                .password("Password123")
+                .phones(ModelGenerator.generatePhoneDtos(2))
+                .build();
+
+        StepVerifier.create(userService.registerUser(userRequest))
+                .assertNext(userResponse -> {
+                    assertThat(userResponse.getId()).isNotNull();
+                    assertThat(userResponse.getToken()).isNotEmpty();
+                    assertThat(userResponse.getIsActive()).isTrue();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debería retornar 409 si el email ya está registrado")
+    void shouldFailWithConflictWhenEmailAlreadyExists() {
+        UserRequest userRequest = UserRequest.builder()
+                .name("Duplicado")
+                .email("duplicado.reactivo@example.com")
+                .password("Password123")
+                .phones(ModelGenerator.generatePhoneDtos(1))
+                .build();
+
+        StepVerifier.create(userService.registerUser(userRequest)).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(userService.registerUser(userRequest))
+                .expectErrorSatisfies(e -> {
+                    assertThat(e).isInstanceOf(ResponseStatusException.class);
+                    assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                    assertThat(((ResponseStatusException) e).getReason()).isEqualTo("El correo ya está registrado");
+                })
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Debería fallar con ValidationException si el email es inválido")
+    void shouldFailWithValidationExceptionWhenEmailIsInvalid() {
+        UserRequest userRequest = UserRequest.builder()
+                .password("Password123")
+                .email("invalid-email")
+                .build();
+
+        StepVerifier.create(userService.registerUser(userRequest))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(ValidationException.class)
+                        .hasMessage("Formato de correo inválido"))
+                .verify();
+    }
+}
@@ -0,0 +1,10 @@
+package com.evaluacion.nisum.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs every {@link ValidationServiceTest} case with the hand-written scanners enabled.
+ */
+@TestPropertySource(properties = "validation.mode=scanner")
+public class ScannerValidationServiceTest extends ValidationServiceTest {
+}
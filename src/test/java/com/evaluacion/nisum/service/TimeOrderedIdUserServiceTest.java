@@ -0,0 +1,40 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"registration.id-generator=time-ordered", "password-hashing.cost=1000"})
+@Transactional
+class TimeOrderedIdUserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Debería registrar usuarios con ids UUID v7 crecientes")
+    void shouldAssignTimeOrderedIds() {
+        UserRequest first = ModelGenerator.generateUserRequest("ordenado1@example.com");
+        UserRequest second = ModelGenerator.generateUserRequest("ordenado2@example.com");
+
+        UserResponse firstResponse = userService.registerUser(first);
+        UserResponse secondResponse = userService.registerUser(second);
+
+        assertThat(firstResponse.getId().version()).isEqualTo(7);
+        assertThat(secondResponse.getId()).isGreaterThan(firstResponse.getId());
+        User userInDb = userRepository.findByEmail(second.getEmail()).orElseThrow();
+        assertThat(userInDb.getId()).isEqualTo(secondResponse.getId());
+    }
+}
@@ -0,0 +1,71 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import helper.ModelGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "password-hashing.cost=1000")
+class UserQueryServiceTest {
+
+    @Autowired
+    private UserQueryService userQueryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Debería servir la segunda lectura desde la caché")
+    void shouldServeRepeatedReadsFromCache() {
+        User user = userRepository.save(ModelGenerator.generateUser(100));
+        double hitsBefore = cacheHits();
+
+        UserDetailResponse first = userQueryService.findById(user.getId(), false).orElseThrow();
+        UserDetailResponse second = userQueryService.findById(user.getId(), false).orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(first.getPhones()).isNull();
+        assertThat(cacheHits() - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debería incluir los teléfonos y resolver por correo")
+    void shouldFindByEmailWithPhones() {
+        User user = userRepository.save(ModelGenerator.generateUser(101));
+
+        UserDetailResponse found = userQueryService.findByEmail(user.getEmail(), true).orElseThrow();
+
+        assertThat(found.getId()).isEqualTo(user.getId());
+        assertThat(found.getPhones()).hasSize(2);
+        assertThat(userQueryService.findByEmail("nadie@example.com", false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería invalidar la caché al modificar el usuario")
+    void shouldEvictOnWrite() {
+        User user = userRepository.save(ModelGenerator.generateUser(102));
+        UserDetailResponse cached = userQueryService.findById(user.getId(), false).orElseThrow();
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        stored.setName("Nombre Nuevo");
+        userRepository.save(stored);
+
+        UserDetailResponse reloaded = userQueryService.findById(user.getId(), false).orElseThrow();
+        assertThat(reloaded.getName()).isEqualTo("Nombre Nuevo");
+        assertThat(reloaded.getModified()).isAfter(cached.getModified());
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count();
+    }
+}
@@ -1,10 +1,14 @@
 package com.evaluacion.nisum.service;
 
+import com.evaluacion.nisum.dto.BulkRegistrationResult;
+import com.evaluacion.nisum.dto.PhoneDto;
 import com.evaluacion.nisum.dto.UserRequest;
 import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ConflictException;
 import com.evaluacion.nisum.exception.ValidationException;
 import com.evaluacion.nisum.model.User;
 import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.security.PasswordHasher;
 import helper.ModelGenerator;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -12,9 +16,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
 
 @SpringBootTest
 @Transactional
@@ -26,6 +30,9 @@ public class UserServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
     @Test
     @DisplayName("Debería registrar un usuario correctamente")
     void shouldRegisterUserSuccessfully() {
@@ -35,7 +42,7 @@ public class UserServiceTest {
                 .name(testUser.getName())
                 .email(testUser.getEmail())
                 .password("Password123")
-                .phones(testUser.getPhones())
+                .phones(PhoneDto.fromPhones(testUser.getPhones()))
                 .build();
 
         UserResponse userResponse = userService.registerUser(userRequest);
@@ -51,6 +58,8 @@ public class UserServiceTest {
         User userInDb = userRepository.findByEmail(userRequest.getEmail()).orElse(null);
         assertThat(userInDb).isNotNull();
         assertThat(userInDb.getEmail()).isEqualTo(userRequest.getEmail());
+        assertThat(userInDb.getPassword()).isNotEqualTo("Password123");
+        assertThat(passwordHasher.matches("Password123", userInDb.getPassword())).isTrue();
         assertThat(userInDb.getPhones()).usingRecursiveAssertion().isNotNull();
     }
 
@@ -60,7 +69,7 @@ public class UserServiceTest {
         UserRequest userRequest = UserRequest.builder()
                 .password("Password123")
                 .email("invalid-email")
-                .phones(ModelGenerator.generatePhones(1))
+                .phones(ModelGenerator.generatePhoneDtos(1))
                 .build();
 
 
@@ -79,14 +88,12 @@ public class UserServiceTest {
                 .name(existingUser.getName())
                 .email(existingUser.getEmail())
                 .password("Password123")
-                .phones(existingUser.getPhones())
+                .phones(PhoneDto.fromPhones(existingUser.getPhones()))
                 .build();
 
         assertThatThrownBy(() -> userService.registerUser(userRequest))
-                .isInstanceOf(ResponseStatusException.class)
-                .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT)
-                .extracting("reason")
-                .isEqualTo("El correo ya está registrado");
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("El correo ya está registrado");
     }
 
     @Test
@@ -96,10 +103,40 @@ public class UserServiceTest {
                 .password("pass")
                 .name("Fer")
                 .email("fer@sample.com")
-                .phones(ModelGenerator.generatePhones(1)).build();
+                .phones(ModelGenerator.generatePhoneDtos(1)).build();
 
         assertThatThrownBy(() -> userService.registerUser(userRequest))
                 .isInstanceOf(ValidationException.class)
                 .hasMessage("La contraseña no cumple con los requisitos");
     }
+
+    @Test
+    @DisplayName("Debería registrar un lote e informar el resultado de cada entrada")
+    void shouldRegisterBatchReportingEachEntry() {
+        User existingUser = ModelGenerator.generateUser(2);
+        userRepository.save(existingUser);
+
+        List<UserRequest> userRequests = List.of(
+                UserRequest.builder().name("Uno").email("uno@example.com").password("Password123")
+                        .phones(ModelGenerator.generatePhoneDtos(2)).build(),
+                UserRequest.builder().name("Dos").email("invalid-email").password("Password123").build(),
+                UserRequest.builder().name("Tres").email(existingUser.getEmail()).password("Password123").build(),
+                UserRequest.builder().name("Cuatro").email("uno@example.com").password("Password123").build(),
+                UserRequest.builder().name("Cinco").email("cinco@example.com").password("pass").build());
+
+        List<BulkRegistrationResult> results = userService.registerUsers(userRequests);
+
+        assertThat(results).extracting(BulkRegistrationResult::getStatus)
+                .containsExactly(201, 400, 409, 409, 400);
+        assertThat(results).extracting(BulkRegistrationResult::getIndex)
+                .containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).getUser().getId()).isNotNull();
+        assertThat(results.get(1).getMensaje()).isEqualTo("Formato de correo inválido");
+        assertThat(results.get(2).getMensaje()).isEqualTo("El correo ya está registrado");
+        assertThat(results.get(4).getMensaje()).isEqualTo("La contraseña no cumple con los requisitos");
+
+        User userInDb = userRepository.findByEmail("uno@example.com").orElse(null);
+        assertThat(userInDb).isNotNull();
+        assertThat(userInDb.getPhones()).hasSize(2);
+    }
 }
\ No newline at end of file
@@ -68,7 +68,8 @@ public class ValidationServiceTest {
                 Arguments.of("pipe-in-domain@example.com|gov", "Caracteres no permitidos en dominio"),
                 Arguments.of("comma,in-local@domain.com", "Coma en parte local"),
                 Arguments.of("comma-in-domain@domain,com", "Coma en dominio"),
-                Arguments.of("pound-sign-in-local#domain.com", "Almohadilla en parte local")
+                Arguments.of("pound-sign-in-local#domain.com", "Almohadilla en parte local"),
+                Arguments.of(null, "Sin correo")
         );
     }
 
@@ -116,7 +117,8 @@ public class ValidationServiceTest {
                 Arguments.of("中文密码123", "Caracteres Unicode - Chino"),
                 Arguments.of("Пароль123", "Caracteres Unicode - Ruso"),
                 Arguments.of("パスワード123", "Caracteres Unicode - Japonés"),
-                Arguments.of("كلمهالسر123", "Caracteres Unicode - Árabe")
+                Arguments.of("كلمهالسر123", "Caracteres Unicode - Árabe"),
+                Arguments.of(null, "Sin contraseña")
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.evaluacion.nisum.service;
+
+import com.evaluacion.nisum.dto.UserRequest;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ConflictException;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.repository.UserStore;
+import helper.ModelGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "registration.write-behind.enabled=true",
+        "registration.write-behind.retry-backoff=10ms"
+})
+class WriteBehindUserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private UserStore userStore;
+
+    @Test
+    @DisplayName("Debería responder con el id y persistir el usuario de forma asíncrona")
+    void shouldPersistQueuedUser() throws InterruptedException {
+        UserRequest userRequest = ModelGenerator.generateUserRequest("writebehind@example.com");
+
+        UserResponse userResponse = userService.registerUser(userRequest);
+
+        assertThat(userResponse.getId()).isNotNull();
+        assertThat(userResponse.getToken()).isNotEmpty();
+        User userInDb = awaitUser(userRequest.getEmail());
+        assertThat(userInDb.getId()).isEqualTo(userResponse.getId());
+        assertThat(userInDb.getPhones()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un correo que todavía está en la cola")
+    void shouldRejectDuplicateWhileQueued() {
+        UserRequest userRequest = ModelGenerator.generateUserRequest("writebehind-dup@example.com");
+        userService.registerUser(userRequest);
+
+        assertThatThrownBy(() -> userService.registerUser(userRequest))
+                .isSameAs(ConflictException.EMAIL_ALREADY_REGISTERED);
+    }
+
+    @Test
+    @DisplayName("Debería reintentar y persistir el usuario cuando el almacén falla una vez y se recupera")
+    void shouldRetryAfterTransientStoreFailure() throws InterruptedException {
+        double failuresBefore = meterRegistry.get("registration.write.failures").counter().count();
+        DataAccessResourceFailureException outage = new DataAccessResourceFailureException("Base de datos reiniciándose");
+        // The first batch write and the first single write fail, then the store is back.
+        doThrow(outage).doCallRealMethod().when(userStore).saveAll(anyList());
+        doThrow(outage).doCallRealMethod().when(userStore).save(any(User.class));
+        UserRequest userRequest = ModelGenerator.generateUserRequest("writebehind-retry@example.com");
+
+        UserResponse userResponse = userService.registerUser(userRequest);
+
+        User userInDb = awaitUser(userRequest.getEmail());
+        assertThat(userInDb.getId()).isEqualTo(userResponse.getId());
+        assertThat(userInDb.getPhones()).hasSize(2);
+        assertThat(meterRegistry.get("registration.write.retries").counter().count()).isPositive();
+        assertThat(meterRegistry.get("registration.write.failures").counter().count()).isEqualTo(failuresBefore);
+    }
+
+    private User awaitUser(String email) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            Optional<User> user = userRepository.findWithPhonesByEmail(email);
+            if (user.isPresent()) {
+                return user.get();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("El usuario " + email + " no se persistió");
+    }
+}
@@ -0,0 +1,47 @@
+package com.evaluacion.nisum.sharding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardRouterTest {
+
+    private static final int EMAILS = 30_000;
+
+    @Test
+    @DisplayName("Debería asignar el mismo fragmento sin importar mayúsculas ni espacios")
+    void shouldNormalizeEmail() {
+        assertThat(ShardRouter.shardFor(" Juan.Rodriguez@Example.com ", 8))
+                .isEqualTo(ShardRouter.shardFor("juan.rodriguez@example.com", 8));
+    }
+
+    @Test
+    @DisplayName("Debería repartir los correos de forma pareja entre los fragmentos")
+    void shouldSpreadEmailsEvenly() {
+        int shards = 4;
+        int[] counts = new int[shards];
+        for (int i = 0; i < EMAILS; i++) {
+            counts[ShardRouter.shardFor("usuario" + i + "@example.com", shards)]++;
+        }
+        for (int count : counts) {
+            assertThat(count).isBetween(EMAILS / shards * 9 / 10, EMAILS / shards * 11 / 10);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería mover solo los correos que pasan al fragmento nuevo al agregar uno")
+    void shouldOnlyMoveEmailsToTheNewShard() {
+        int moved = 0;
+        for (int i = 0; i < EMAILS; i++) {
+            String email = "usuario" + i + "@example.com";
+            int before = ShardRouter.shardFor(email, 3);
+            int after = ShardRouter.shardFor(email, 4);
+            if (before != after) {
+                assertThat(after).isEqualTo(3);
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(EMAILS / 4 * 9 / 10, EMAILS / 4 * 11 / 10);
+    }
+}
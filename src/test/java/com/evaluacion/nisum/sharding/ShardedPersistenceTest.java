@@ -0,0 +1,139 @@
+package com.evaluacion.nisum.sharding;
+
+import com.evaluacion.nisum.dto.UserDetailResponse;
+import com.evaluacion.nisum.dto.UserResponse;
+import com.evaluacion.nisum.exception.ConflictException;
+import com.evaluacion.nisum.model.User;
+import com.evaluacion.nisum.repository.UserRepository;
+import com.evaluacion.nisum.repository.UserStore;
+import com.evaluacion.nisum.service.UserExportService;
+import com.evaluacion.nisum.service.UserQueryService;
+import com.evaluacion.nisum.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import helper.ModelGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("sharded")
+@SpringBootTest(properties = "password-hashing.cost=1000")
+class ShardedPersistenceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserQueryService userQueryService;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private UserStore userStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Debería guardar cada usuario solo en el fragmento de su correo")
+    void shouldStoreUsersOnTheirShardOnly() {
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            String email = "fragmento" + i + "@example.com";
+            userService.registerUser(ModelGenerator.generateUserRequest(email));
+            int expected = shardRouter.shardFor(email);
+            used.add(expected);
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                assertThat(shardRouter.on(shard, () -> userRepository.existsByEmail(email)))
+                        .isEqualTo(shard == expected);
+            }
+        }
+        assertThat(used).hasSize(shardRouter.shardCount());
+
+        assertThatThrownBy(() -> userService.registerUser(ModelGenerator.generateUserRequest("fragmento7@example.com")))
+                .isSameAs(ConflictException.EMAIL_ALREADY_REGISTERED);
+    }
+
+    @Test
+    @DisplayName("Debería encontrar usuarios por id y por correo en cualquier fragmento")
+    void shouldFindUsersOnAnyShard() {
+        List<UserResponse> registered = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            registered.add(userService.registerUser(ModelGenerator.generateUserRequest("consulta" + i + "@example.com")));
+        }
+
+        for (UserResponse user : registered) {
+            UserDetailResponse byId = userQueryService.findById(user.getId(), true).orElseThrow();
+            assertThat(byId.getEmail()).isEqualTo(user.getEmail());
+            assertThat(byId.getPhones()).hasSize(2);
+            assertThat(userQueryService.findByEmail(user.getEmail(), false).orElseThrow().getId()).isEqualTo(user.getId());
+        }
+        assertThat(userStore.findExistingEmails(List.of("consulta1@example.com", "consulta8@example.com", "nadie@example.com")))
+                .containsExactlyInAnyOrder("consulta1@example.com", "consulta8@example.com");
+    }
+
+    @Test
+    @DisplayName("Debería exportar los usuarios de todos los fragmentos en orden de creación")
+    void shouldExportMergedUsers() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            userService.registerUser(ModelGenerator.generateUserRequest("exportar" + i + "@example.com"));
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = userExportService.export(null, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(userStore.count()).isEqualTo(lines.length);
+        LocalDateTime previous = LocalDateTime.MIN;
+        for (String line : lines) {
+            JsonNode user = objectMapper.readTree(line);
+            LocalDateTime created = LocalDateTime.parse(user.get("created").asText());
+            assertThat(created).isAfterOrEqualTo(previous);
+            previous = created;
+        }
+    }
+
+    @Test
+    @DisplayName("Debería mover al fragmento correcto los usuarios guardados en otro")
+    void shouldRebalanceMisplacedUsers() {
+        User user = ModelGenerator.generateUser(1).toBuilder().email("reparto@example.com").token("reparto").build();
+        int expected = shardRouter.shardFor(user.getEmail());
+        int wrong = (expected + 1) % shardRouter.shardCount();
+        shardRouter.on(wrong, () -> userRepository.save(user));
+
+        ShardRebalancer.Result result = shardRebalancer.rebalance();
+
+        assertThat(result.moved()).isEqualTo(1);
+        assertThat(shardRouter.on(wrong, () -> userRepository.existsById(user.getId()))).isFalse();
+        User moved = shardRouter.on(expected, () -> {
+            User stored = userRepository.findWithPhonesByEmail(user.getEmail()).orElseThrow();
+            return stored.toBuilder().phones(new ArrayList<>(stored.getPhones())).build();
+        });
+        assertThat(moved.getId()).isEqualTo(user.getId());
+        assertThat(moved.getPhones()).isEqualTo(user.getPhones());
+        assertThat(shardRebalancer.rebalance().moved()).isZero();
+    }
+}
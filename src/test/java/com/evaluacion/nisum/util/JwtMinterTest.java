@@ -0,0 +1,95 @@
+package com.evaluacion.nisum.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JwtMinterTest {
+
+    private static final long EXPIRATION = 1_700_000_000_123L;
+
+    private static final String JTI = "6f1c2a9e-4b7d-4e0a-9c3f-2d8e5b1a7c40";
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    private final JwtMinter minter = new JwtMinter(jwtUtil.getSigningKey());
+
+    @ParameterizedTest(name = "{index} => subject=''{0}''")
+    @NullAndEmptySource
+    @ValueSource(strings = {
+            "testuser", "Juan P\u00e9rez", "   ", " padded ", "comillas \"dobles\" y \\barra",
+            "control \b\t\n\f\r\u0001\u001f\u007f", "unicode \u4e2d\u6587 \u041f\u0430 \u2028\u2029", "emoji \ud83d\ude00"
+    })
+    @DisplayName("Debería generar los mismos bytes que el builder de jjwt")
+    void shouldBeByteCompatibleWithJjwt(String subject) {
+        String expected = jwtUtil.generateTokenWithBuilder(subject, JTI, new Date(EXPIRATION));
+
+        assertThat(minter.mint(subject, JTI, EXPIRATION)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest(name = "{index} => jti=''{0}''")
+    @NullAndEmptySource
+    @ValueSource(strings = {"   ", "id \"con\" comillas", "\u4e2d\u6587"})
+    @DisplayName("Debería generar los mismos bytes que el builder de jjwt para cualquier jti")
+    void shouldBeByteCompatibleWithJjwtForAnyId(String jti) {
+        String expected = jwtUtil.generateTokenWithBuilder("testuser", jti, new Date(EXPIRATION));
+
+        assertThat(minter.mint("testuser", jti, EXPIRATION)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Debería generar tokens verificables por jjwt")
+    void shouldBeVerifiableByJjwt() {
+        long expiration = System.currentTimeMillis() + 60_000;
+
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(jwtUtil.getSigningKey())
+                .build()
+                .parseClaimsJws(minter.mint("testuser", JTI, expiration))
+                .getBody();
+
+        assertThat(claims.getSubject()).isEqualTo("testuser");
+        assertThat(claims.getId()).isEqualTo(JTI);
+        assertThat(claims.getExpiration()).isEqualTo(new Date(expiration / 1000 * 1000));
+    }
+
+    @Test
+    @DisplayName("Debería generar tokens correctos desde varios hilos")
+    void shouldBeThreadSafe() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String subject = "user-" + i;
+                results.add(executor.submit(() -> minter.mint(subject, JTI, EXPIRATION)
+                        .equals(jwtUtil.generateTokenWithBuilder(subject, JTI, new Date(EXPIRATION)))));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un subject con surrogates sin pareja")
+    void shouldRejectUnpairedSurrogates() {
+        assertThatThrownBy(() -> minter.mint("roto \ud83d", JTI, EXPIRATION))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
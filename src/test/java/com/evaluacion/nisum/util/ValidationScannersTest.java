@@ -0,0 +1,98 @@
+package com.evaluacion.nisum.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ValidationScannersTest {
+
+    private static final int CORPUS_SIZE = 500_000;
+
+    private static final String ALPHABET = "aZm09_!#$%&'*+/=?`{|}~^.-@ ;,\"<>()[]:\\\t\n\r"
+            + "\u0085\u2028\u2029\u00e9\u4e2d\ud83d\ude00\ud83d";
+
+    private static final String LOCAL_CHARS = "abcXYZ019_!#$%&'*+/=?`{|}~^.-";
+
+    private static final String DOMAIN_CHARS = "abcXYZ019.-";
+
+    private static final String PASSWORD_CHARS = "abcxyzABCXYZ0123456789!$ _";
+
+    private final Random random = new Random(20241017L);
+
+    @Test
+    @DisplayName("El scanner de correo debería coincidir con la expresión regular en todo el corpus")
+    void emailScannerShouldMatchRegex() {
+        assertEquivalent(Pattern.compile(EmailScanner.REGEX), EmailScanner::matches, this::email);
+    }
+
+    @Test
+    @DisplayName("El scanner de contraseña debería coincidir con la expresión regular en todo el corpus")
+    void passwordScannerShouldMatchRegex() {
+        assertEquivalent(Pattern.compile(PasswordScanner.REGEX), PasswordScanner::matches, this::password);
+    }
+
+    private void assertEquivalent(Pattern pattern, Predicate<CharSequence> scanner, Supplier<String> wellFormed) {
+        int accepted = 0;
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            String input = switch (i % 3) {
+                case 0 -> randomChars();
+                case 1 -> wellFormed.get();
+                default -> mutate(wellFormed.get());
+            };
+            boolean expected = pattern.matcher(input).matches();
+            assertThat(scanner.test(input)).as("input '%s'", input).isEqualTo(expected);
+            if (expected) {
+                accepted++;
+            }
+        }
+        // Guard against a corpus that only exercises the reject path.
+        assertThat(accepted).isGreaterThan(CORPUS_SIZE / 20);
+    }
+
+    private String email() {
+        return randomFrom(LOCAL_CHARS, 1 + random.nextInt(10))
+                + "@" + randomFrom(DOMAIN_CHARS, 1 + random.nextInt(10))
+                + "." + randomFrom("abcXYZ", random.nextInt(5));
+    }
+
+    private String password() {
+        return randomFrom(PASSWORD_CHARS, random.nextInt(14));
+    }
+
+    private String mutate(String input) {
+        StringBuilder sb = new StringBuilder(input);
+        int position = sb.length() == 0 ? 0 : random.nextInt(sb.length() + 1);
+        switch (random.nextInt(3)) {
+            case 0 -> sb.insert(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            case 1 -> {
+                if (position < sb.length()) {
+                    sb.deleteCharAt(position);
+                }
+            }
+            default -> {
+                if (position < sb.length()) {
+                    sb.setCharAt(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private String randomChars() {
+        return randomFrom(ALPHABET, random.nextInt(16));
+    }
+
+    private String randomFrom(String chars, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(chars.charAt(random.nextInt(chars.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -1,5 +1,7 @@
 package helper;
 
+import com.evaluacion.nisum.dto.PhoneDto;
+import com.evaluacion.nisum.dto.UserRequest;
 import com.evaluacion.nisum.model.Phone;
 import com.evaluacion.nisum.model.User;
 
@@ -24,6 +26,12 @@ public class ModelGenerator {
                 .toList();
     }
 
+    public static List<PhoneDto> generatePhoneDtos(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(index -> PhoneDto.from(generatePhone(index)))
+                .toList();
+    }
+
     public static User generateUser(int index) {
         return User.builder()
                 .id(UUID.randomUUID())
@@ -44,4 +52,13 @@ public class ModelGenerator {
                 .mapToObj(ModelGenerator::generateUser)
                 .toList();
     }
+
+    public static UserRequest generateUserRequest(String email) {
+        return UserRequest.builder()
+                .name("Test User")
+                .email(email)
+                .password("Password123")
+                .phones(generatePhoneDtos(2))
+                .build();
+    }
 }